@@ -1,6 +1,12 @@
 package org.dotspace.oofp.support;
 
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
 
 public interface ExpressionEvaluation {
 	
@@ -18,4 +24,44 @@ public interface ExpressionEvaluation {
 	
 	public <T> void setValue(T result, Object value);
 
+	/**
+	 * Evaluates against every root in turn; the results go into {@code results} when it is large
+	 * enough, otherwise into a new array of its type.
+	 */
+	public default <T> T[] getValues(Class<T> resultClazz, Map<String, Object> variables, 
+			Object[] roots, T[] results) {
+		return getValues(resultClazz, variables, Arrays.asList(roots), results, null);
+	}
+
+	public default <T> T[] getValues(Class<T> resultClazz, Map<String, Object> variables, 
+			List<?> roots, T[] results) {
+		return getValues(resultClazz, variables, roots, results, null);
+	}
+
+	/**
+	 * As {@link #getValues(Class, Map, List, Object[])}; implementations may split batches larger
+	 * than a thousand roots into ranges evaluated on the pool, a null pool evaluates in the calling
+	 * thread.
+	 */
+	public default <T> T[] getValues(Class<T> resultClazz, Map<String, Object> variables, 
+			List<?> roots, T[] results, ForkJoinPool pool) {
+		T[] values = results;
+		if (values.length < roots.size()) {
+			@SuppressWarnings("unchecked")
+			T[] sized = (T[]) Array.newInstance(results.getClass().getComponentType(), roots.size());
+			values = sized;
+		}
+
+		int i = 0;
+		for (Object root : roots) {
+			values[i++] = getValue(resultClazz, variables, root);
+		}
+		return values;
+	}
+
+	public default <T, A, R> R getValues(Class<T> resultClazz, Map<String, Object> variables, 
+			Stream<?> roots, Collector<? super T, A, R> collector) {
+		return roots.map(root -> getValue(resultClazz, variables, root)).collect(collector);
+	}
+
 }
@@ -0,0 +1,9 @@
+package org.dotspace.oofp.support;
+
+import java.util.Collection;
+
+public interface ExpressionSource {
+
+	public Collection<String> getConfiguredExpressions();
+
+}
@@ -0,0 +1,80 @@
+package org.dotspace.oofp.support.expression;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Index bookkeeping shared by the batch evaluations: result arrays sized like
+ * {@link java.util.Collection#toArray(Object[])}, and batches cut into ranges of at most
+ * {@link #SPLIT_THRESHOLD} roots when a fork-join pool is given.
+ */
+final class BatchEvaluations {
+
+	static final int SPLIT_THRESHOLD = 1024;
+
+	private BatchEvaluations() {
+	}
+
+	static List<?> randomAccess(List<?> roots) {
+		return roots instanceof RandomAccess ? roots : new ArrayList<>(roots);
+	}
+
+	static <T> T[] resultsOf(T[] results, int size) {
+		if (results.length >= size) {
+			return results;
+		}
+
+		@SuppressWarnings("unchecked")
+		T[] values = (T[]) Array.newInstance(results.getClass().getComponentType(), size);
+		return values;
+	}
+
+	static void evaluate(int size, ForkJoinPool pool, RangeEvaluation evaluation) {
+		if (null == pool || size <= SPLIT_THRESHOLD) {
+			evaluation.evaluate(0, size);
+			return;
+		}
+
+		pool.invoke(new RangeTask(evaluation, 0, size));
+	}
+
+	interface RangeEvaluation {
+
+		public void evaluate(int from, int to);
+
+	}
+
+	private static class RangeTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final RangeEvaluation evaluation;
+
+		private final int from;
+
+		private final int to;
+
+		private RangeTask(RangeEvaluation evaluation, int from, int to) {
+			this.evaluation = evaluation;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= SPLIT_THRESHOLD) {
+				evaluation.evaluate(from, to);
+				return;
+			}
+
+			int middle = (from + to) >>> 1;
+			invokeAll(new RangeTask(evaluation, from, middle), new RangeTask(evaluation, middle, to));
+		}
+
+	}
+
+}
@@ -0,0 +1,171 @@
+package org.dotspace.oofp.support.expression;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+
+import org.apache.commons.lang3.ClassUtils;
+import org.dotspace.oofp.support.ExpressionEvaluation;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelNode;
+import org.springframework.expression.spel.ast.Elvis;
+import org.springframework.expression.spel.ast.InlineList;
+import org.springframework.expression.spel.ast.InlineMap;
+import org.springframework.expression.spel.ast.Literal;
+import org.springframework.expression.spel.ast.OpAnd;
+import org.springframework.expression.spel.ast.OpDivide;
+import org.springframework.expression.spel.ast.OpEQ;
+import org.springframework.expression.spel.ast.OpGE;
+import org.springframework.expression.spel.ast.OpGT;
+import org.springframework.expression.spel.ast.OpLE;
+import org.springframework.expression.spel.ast.OpLT;
+import org.springframework.expression.spel.ast.OpMinus;
+import org.springframework.expression.spel.ast.OpModulus;
+import org.springframework.expression.spel.ast.OpMultiply;
+import org.springframework.expression.spel.ast.OpNE;
+import org.springframework.expression.spel.ast.OpOr;
+import org.springframework.expression.spel.ast.OpPlus;
+import org.springframework.expression.spel.ast.OperatorBetween;
+import org.springframework.expression.spel.ast.OperatorMatches;
+import org.springframework.expression.spel.ast.OperatorNot;
+import org.springframework.expression.spel.ast.OperatorPower;
+import org.springframework.expression.spel.ast.Ternary;
+import org.springframework.expression.spel.standard.SpelExpression;
+
+/**
+ * The value of an expression built from literals and operators only, such as {@code 'yyyyMMdd'},
+ * {@code 300L}, {@code -1} or {@code {'a':1}}, evaluated once when parsed and handed out as is
+ * whatever the root and variables. Inline lists and maps fold only when SpEL itself keeps them
+ * as unmodifiable constants, so no caller can change the value shared by all. A value of another
+ * result class is converted by the SpEL fallback, which also rejects every write.
+ */
+public class ConstantEvaluation implements ExpressionEvaluation {
+
+	private static final List<Class<?>> OPERATORS = Arrays.asList(
+			OpPlus.class, OpMinus.class, OpMultiply.class, OpDivide.class, OpModulus.class,
+			OperatorPower.class, OpAnd.class, OpOr.class, OperatorNot.class, OpEQ.class,
+			OpNE.class, OpGT.class, OpGE.class, OpLT.class, OpLE.class, OperatorBetween.class,
+			OperatorMatches.class, Ternary.class, Elvis.class);
+
+	private final Object value;
+
+	private final ExpressionEvaluation fallback;
+
+	protected ConstantEvaluation(Object value, ExpressionEvaluation fallback) {
+		this.value = value;
+		this.fallback = fallback;
+	}
+
+	/**
+	 * @return whether the parsed expression refers to nothing but literals and operators
+	 */
+	public static boolean isConstant(Expression expression) {
+		return expression instanceof SpelExpression
+				&& isConstant(((SpelExpression) expression).getAST());
+	}
+
+	private static boolean isConstant(SpelNode node) {
+		if (node instanceof Literal) {
+			return true;
+		}
+
+		if (node instanceof InlineList) {
+			return ((InlineList) node).isConstant();
+		}
+
+		if (node instanceof InlineMap) {
+			return ((InlineMap) node).isConstant();
+		}
+
+		if (!OPERATORS.contains(node.getClass())) {
+			return false;
+		}
+
+		for (int i = 0; i < node.getChildCount(); i++) {
+			if (!isConstant(node.getChild(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public <T> T getValue(Class<T> resultClazz, Map<String, Object> variables, Object root) {
+		return isResultOf(resultClazz) 
+				? cast(value) 
+				: fallback.getValue(resultClazz, variables, root);
+	}
+
+	@Override
+	public <T> T getValue(Class<T> resultClazz, Object root) {
+		return isResultOf(resultClazz) ? cast(value) : fallback.getValue(resultClazz, root);
+	}
+
+	private boolean isResultOf(Class<?> resultClazz) {
+		if (null == resultClazz) {
+			return true;
+		}
+		return null == value
+				? !resultClazz.isPrimitive()
+				: ClassUtils.primitiveToWrapper(resultClazz).isInstance(value);
+	}
+
+	@Override
+	public <T> T getValueWithVariables(Map<String, Object> variables, Object root) {
+		return cast(value);
+	}
+
+	@Override
+	public <T> T getValue(Object root) {
+		return cast(value);
+	}
+
+	@Override
+	public <T> T getValue() {
+		return cast(value);
+	}
+
+	@Override
+	public <T> void setValue(Map<String, Object> variables, T root, Object value) {
+		fallback.setValue(variables, root, value);
+	}
+
+	@Override
+	public <T> void setValue(T root, Object value) {
+		fallback.setValue(root, value);
+	}
+
+	@Override
+	public <T> T[] getValues(Class<T> resultClazz, Map<String, Object> variables, List<?> roots,
+			T[] results, ForkJoinPool pool) {
+		T[] values = BatchEvaluations.resultsOf(results, roots.size());
+		if (!roots.isEmpty()) {
+			Arrays.fill(values, 0, roots.size(), getValue(resultClazz, variables, null));
+		}
+		return values;
+	}
+
+	@Override
+	public <T, A, R> R getValues(Class<T> resultClazz, Map<String, Object> variables,
+			Stream<?> roots, Collector<? super T, A, R> collector) {
+		T result = getValue(resultClazz, variables, null);
+		if (roots.isParallel()) {
+			return roots.map(root -> result).collect(collector);
+		}
+
+		A container = collector.supplier().get();
+		BiConsumer<A, ? super T> accumulator = collector.accumulator();
+		roots.forEachOrdered(root -> accumulator.accept(container, result));
+		return collector.finisher().apply(container);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T cast(Object value) {
+		return (T) value;
+	}
+
+}
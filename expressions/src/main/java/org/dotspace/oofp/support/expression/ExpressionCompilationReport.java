@@ -0,0 +1,59 @@
+package org.dotspace.oofp.support.expression;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.springframework.expression.Expression;
+
+/**
+ * Records, per expression text, whether SpEL managed to compile it to bytecode. Expressions that
+ * failed keep running interpreted.
+ */
+public class ExpressionCompilationReport {
+
+	private final Map<String, Boolean> outcomes = new ConcurrentHashMap<>();
+
+	private final Set<Expression> attempted = Collections.newSetFromMap(
+			Collections.synchronizedMap(new WeakHashMap<>()));
+
+	/**
+	 * Whether this is the first compile attempt on the parsed expression, which every evaluation
+	 * parsed from it shares.
+	 */
+	boolean attempt(Expression expression) {
+		return attempted.add(expression);
+	}
+
+	void record(String expressionText, boolean compiled) {
+		outcomes.put(expressionText, compiled);
+	}
+
+	public boolean isCompiled(String expressionText) {
+		return Boolean.TRUE.equals(outcomes.get(expressionText));
+	}
+
+	public Set<String> getCompiledExpressions() {
+		return getExpressions(true);
+	}
+
+	public Set<String> getFailedExpressions() {
+		return getExpressions(false);
+	}
+
+	private Set<String> getExpressions(boolean compiled) {
+		return outcomes.entrySet().stream()
+				.filter(e -> e.getValue() == compiled)
+				.map(Map.Entry::getKey)
+				.collect(Collectors.toSet());
+	}
+
+	public void clear() {
+		outcomes.clear();
+		attempted.clear();
+	}
+
+}
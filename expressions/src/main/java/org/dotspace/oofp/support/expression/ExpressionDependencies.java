@@ -0,0 +1,242 @@
+package org.dotspace.oofp.support.expression;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.expression.Expression;
+import org.springframework.expression.common.LiteralExpression;
+import org.springframework.expression.spel.SpelNode;
+import org.springframework.expression.spel.ast.CompoundExpression;
+import org.springframework.expression.spel.ast.FunctionReference;
+import org.springframework.expression.spel.ast.Indexer;
+import org.springframework.expression.spel.ast.MethodReference;
+import org.springframework.expression.spel.ast.Projection;
+import org.springframework.expression.spel.ast.PropertyOrFieldReference;
+import org.springframework.expression.spel.ast.Selection;
+import org.springframework.expression.spel.ast.VariableReference;
+import org.springframework.expression.spel.standard.SpelExpression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+/**
+ * The root properties and variables a parsed expression reads, worked out from its AST without
+ * evaluating it. A property path is recorded up to its first step that is not a plain property,
+ * so {@code detail.items.size()} reads {@code detail.items}; properties inside a selection or
+ * projection belong to the elements and only the collection path is recorded. An expression that
+ * hands the root itself to something, such as {@code #root}, {@code #this} at the top or a method
+ * called on the root, reads the whole root.
+ */
+public class ExpressionDependencies {
+
+	public static final ExpressionDependencies NONE = new ExpressionDependencies(
+			Collections.emptySet(), Collections.emptySet(), false);
+
+	private static final SpelExpressionParser PARSER = new SpelExpressionParser();
+
+	private final Set<String> propertyPaths;
+
+	private final Set<String> variables;
+
+	private final boolean wholeRoot;
+
+	private ExpressionDependencies(Set<String> propertyPaths, Set<String> variables,
+			boolean wholeRoot) {
+		this.propertyPaths = Collections.unmodifiableSet(propertyPaths);
+		this.variables = Collections.unmodifiableSet(variables);
+		this.wholeRoot = wholeRoot;
+	}
+
+	public static ExpressionDependencies of(String expression) {
+		return null != expression ? of(PARSER.parseExpression(expression)) : NONE;
+	}
+
+	public static ExpressionDependencies of(Expression expression) {
+		if (null == expression || expression instanceof LiteralExpression) {
+			return NONE;
+		}
+
+		Walker walker = new Walker();
+		if (expression instanceof SpelExpression) {
+			walker.walk(((SpelExpression) expression).getAST(), true);
+		} else {
+			walker.wholeRoot = true;
+		}
+		return new ExpressionDependencies(walker.propertyPaths, walker.variables, walker.wholeRoot);
+	}
+
+	/**
+	 * @return the dotted root property paths read, {@code ?.} written as {@code .}
+	 */
+	public Set<String> getPropertyPaths() {
+		return propertyPaths;
+	}
+
+	/**
+	 * @return the first step of every property path read
+	 */
+	public Set<String> getRootProperties() {
+		Set<String> names = new LinkedHashSet<>();
+		for (String path : propertyPaths) {
+			int dot = path.indexOf('.');
+			names.add(dot < 0 ? path : path.substring(0, dot));
+		}
+		return names;
+	}
+
+	/**
+	 * @return the variables and functions referenced, {@code #this} and {@code #root} excepted
+	 */
+	public Set<String> getVariables() {
+		return variables;
+	}
+
+	public boolean isWholeRoot() {
+		return wholeRoot;
+	}
+
+	/**
+	 * @return whether the property path, or a path through or under it, may be read: a reader of
+	 *         {@code detail.amount} needs {@code detail} and {@code detail.amount} but not
+	 *         {@code detail.count}, a reader of {@code detail} needs all three
+	 */
+	public boolean reads(String propertyPath) {
+		if (wholeRoot) {
+			return true;
+		}
+
+		String path = propertyPath.replace("?.", ".");
+		for (String read : propertyPaths) {
+			if (read.equals(path) || read.startsWith(path + ".") || path.startsWith(read + ".")) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public ExpressionDependencies union(ExpressionDependencies other) {
+		Set<String> paths = new LinkedHashSet<>(propertyPaths);
+		paths.addAll(other.propertyPaths);
+		Set<String> names = new LinkedHashSet<>(variables);
+		names.addAll(other.variables);
+		return new ExpressionDependencies(paths, names, wholeRoot || other.wholeRoot);
+	}
+
+	public static ExpressionDependencies union(Iterable<String> expressions) {
+		ExpressionDependencies dependencies = NONE;
+		for (String expression : expressions) {
+			dependencies = dependencies.union(of(expression));
+		}
+		return dependencies;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("properties %s, variables %s%s", propertyPaths, variables,
+				wholeRoot ? ", whole root" : "");
+	}
+
+	private static class Walker {
+
+		private final Set<String> propertyPaths = new LinkedHashSet<>();
+
+		private final Set<String> variables = new LinkedHashSet<>();
+
+		private boolean wholeRoot;
+
+		/**
+		 * @param atRoot whether the node is evaluated against the root, rather than against an
+		 *        element of a selection or projection
+		 */
+		private void walk(SpelNode node, boolean atRoot) {
+			if (node instanceof CompoundExpression) {
+				walkCompound(node, atRoot);
+			} else if (node instanceof PropertyOrFieldReference) {
+				if (atRoot) {
+					propertyPaths.add(((PropertyOrFieldReference) node).getName());
+				}
+			} else if (node instanceof VariableReference) {
+				readVariable(node, atRoot);
+			} else if (node instanceof MethodReference || node instanceof Indexer
+					|| node instanceof Selection || node instanceof Projection) {
+				wholeRoot |= atRoot;
+				walkArguments(node, atRoot);
+			} else {
+				if (node instanceof FunctionReference) {
+					String function = node.toStringAST();
+					variables.add(function.substring(1, function.indexOf('(')));
+				}
+				walkArguments(node, atRoot);
+			}
+		}
+
+		private void walkCompound(SpelNode node, boolean atRoot) {
+			SpelNode first = node.getChild(0);
+			List<String> path = null;
+			if (first instanceof PropertyOrFieldReference && atRoot) {
+				path = new ArrayList<>();
+				path.add(((PropertyOrFieldReference) first).getName());
+			} else if (isRootReference(first, atRoot)) {
+				path = new ArrayList<>();
+			} else {
+				walk(first, atRoot);
+			}
+
+			for (int i = 1; i < node.getChildCount(); i++) {
+				SpelNode step = node.getChild(i);
+				if (null != path && step instanceof PropertyOrFieldReference) {
+					path.add(((PropertyOrFieldReference) step).getName());
+					continue;
+				}
+
+				readPath(path);
+				path = null;
+				walkArguments(step, atRoot);
+			}
+			readPath(path);
+		}
+
+		private void readPath(List<String> path) {
+			if (null == path) {
+				return;
+			}
+
+			if (path.isEmpty()) {
+				wholeRoot = true;
+			} else {
+				propertyPaths.add(String.join(".", path));
+			}
+		}
+
+		private boolean isRootReference(SpelNode node, boolean atRoot) {
+			if (!(node instanceof VariableReference)) {
+				return false;
+			}
+
+			String name = node.toStringAST();
+			return "#root".equals(name) || (atRoot && "#this".equals(name));
+		}
+
+		private void readVariable(SpelNode node, boolean atRoot) {
+			if (isRootReference(node, atRoot)) {
+				wholeRoot = true;
+			} else if (!"#this".equals(node.toStringAST())) {
+				variables.add(node.toStringAST().substring(1));
+			}
+		}
+
+		/**
+		 * Method arguments and indices are evaluated against the scope the node sits in, the
+		 * criteria of a selection or projection against each element.
+		 */
+		private void walkArguments(SpelNode node, boolean atRoot) {
+			boolean elements = node instanceof Selection || node instanceof Projection;
+			for (int i = 0; i < node.getChildCount(); i++) {
+				walk(node.getChild(i), atRoot && !elements);
+			}
+		}
+
+	}
+
+}
@@ -1,48 +1,121 @@
 package org.dotspace.oofp.support.expression;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
 
 import org.dotspace.oofp.support.ExpressionEvaluation;
-import org.dotspace.oofp.support.builder.GeneralBuilders;
-import org.dotspace.oofp.support.builder.writer.GeneralBuildingWriters;
 import org.dotspace.oofp.util.functional.Casters;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.expression.BeanFactoryResolver;
+import org.springframework.context.expression.MapAccessor;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
-import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.standard.SpelExpression;
+import org.springframework.expression.spel.support.DataBindingPropertyAccessor;
+import org.springframework.expression.spel.support.SimpleEvaluationContext;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
 
 public class ExpressionEvaluationImpl implements ExpressionEvaluation {
 
-	private ApplicationContext applicationContext;
+	private static final ParsedExpressionCache PARSED_EXPRESSIONS = new ParsedExpressionCache();
+
+	private EvaluationContext contextTemplate;
 	
 	private Expression expression;
 	
+	private ExpressionCompilationReport compilations;
+	
+	private volatile boolean compileAttempted;
+	
+	private ExpressionMetrics metrics;
+	
+	/**
+	 * Parses through a {@link ParsedExpressionCache} shared by the evaluations built this way, so
+	 * the same text is parsed once.
+	 */
 	protected ExpressionEvaluationImpl(
 			ApplicationContext applicationContext, String expressionText) {
-		this.applicationContext = applicationContext;
-		
-		this.expression = Optional.ofNullable(expressionText)
-				.map(expr -> {
-					SpelExpressionParser parser = new SpelExpressionParser();
-					return parser.parseExpression(expr);
-				})
-				.orElse(null);
+		this(applicationContext, PARSED_EXPRESSIONS.parse(expressionText));
+	}
+
+	protected ExpressionEvaluationImpl(
+			ApplicationContext applicationContext, Expression expression) {
+		this(newContextTemplate(applicationContext), expression, null);
+	}
+
+	protected ExpressionEvaluationImpl(EvaluationContext contextTemplate, 
+			Expression expression, ExpressionCompilationReport compilations) {
+		this(contextTemplate, expression, compilations, null);
+	}
+
+	protected ExpressionEvaluationImpl(EvaluationContext contextTemplate, Expression expression, 
+			ExpressionCompilationReport compilations, ExpressionMetrics metrics) {
+		this.contextTemplate = contextTemplate;
+		this.expression = expression;
+		this.compilations = compilations;
+		this.metrics = null != expression ? metrics : null;
+	}
+
+	/**
+	 * A template to share between threads: the resolvers, type locator and type converter a
+	 * {@link StandardEvaluationContext} otherwise sets up lazily, without synchronization, on first
+	 * use are set up before it is returned.
+	 */
+	public static StandardEvaluationContext newContextTemplate(
+			ApplicationContext applicationContext) {
+		StandardEvaluationContext context = new StandardEvaluationContext();
+		context.addPropertyAccessor(new MapAccessor());
+		if (null != applicationContext) {
+			context.setBeanResolver(new BeanFactoryResolver(applicationContext));
+		}
+		context.getMethodResolvers();
+		context.getConstructorResolvers();
+		context.getTypeLocator();
+		context.getTypeConverter();
+		return context;
+	}
+
+	/**
+	 * A template reading map keys and public bean properties and calling instance methods only: no
+	 * bean references, type references, constructors or assignments.
+	 */
+	public static SimpleEvaluationContext newReadOnlyContextTemplate() {
+		return SimpleEvaluationContext.forPropertyAccessors(new MapAccessor() {
+
+			@Override
+			public boolean canWrite(EvaluationContext context, Object target, String name) {
+				return false;
+			}
+
+		}, DataBindingPropertyAccessor.forReadOnlyAccess())
+				.withInstanceMethods()
+				.build();
 	}
 
 	@Override
 	public <T> T getValue(Class<T> resultClazz, Object root) {
-		EvaluationContext context = getContext(root, Collections.emptyMap());
-		return expression.getValue(context, resultClazz);
+		return getValue(resultClazz, Collections.emptyMap(), root);
 	}
 
 	@Override
 	public <T> T getValue(Class<T> resultClazz, Map<String, Object> variables, Object root) {
 		EvaluationContext context = getContext(root, variables);
-		return expression.getValue(context, resultClazz);
+		long start = startTime();
+		boolean failed = true;
+		try {
+			T value = expression.getValue(context, resultClazz);
+			failed = false;
+			compile();
+			return value;
+		} finally {
+			record(1, start, failed);
+		}
 	}
 
 	@Override
@@ -51,13 +124,11 @@ public class ExpressionEvaluationImpl implements ExpressionEvaluation {
 		return evaluateValue(context);
 	}
 
-	private EvaluationContext getContext(Object root, Map<String, Object> variables) {
-		EvaluationContext context = GeneralBuilders.of(x -> new StandardEvaluationContext(x))
-				.with(GeneralBuildingWriters.set(
-						StandardEvaluationContext::setBeanResolver, 
-						new BeanFactoryResolver(applicationContext)))
-				.build(root);
-		variables.forEach((name, value) -> context.setVariable(name, value));
+	private ScopedEvaluationContext getContext(Object root, Map<String, Object> variables) {
+		ScopedEvaluationContext context = new ScopedEvaluationContext(contextTemplate, root);
+		if (null != variables) {
+			variables.forEach((name, value) -> context.setVariable(name, value));
+		}
 		return context;
 	}
 
@@ -68,13 +139,50 @@ public class ExpressionEvaluationImpl implements ExpressionEvaluation {
 	}
 
 	private <T> T evaluateValue(EvaluationContext context) {
+		long start = startTime();
+		boolean failed = true;
+		try {
+			T value = Optional.ofNullable(expression)
+					.map(e -> context != null ? e.getValue(context) : e.getValue())
+					.map(Casters.<T>cast())
+					.orElse(null);
+			failed = false;
+			
+			compile();
+			return value;
+		} finally {
+			record(1, start, failed);
+		}
+	}
 
-		T value = Optional.ofNullable(expression)
-				.map(e -> context != null ? e.getValue(context) : e.getValue())
-				.map(Casters.<T>cast())
-				.orElse(null);
-		
-		return value;
+	private long startTime() {
+		return null != metrics ? System.nanoTime() : 0L;
+	}
+
+	private void record(int count, long start, boolean failed) {
+		if (null != metrics && (count > 0 || failed)) {
+			metrics.recordEvaluations(expression.getExpressionString(), count, 
+					System.nanoTime() - start, failed);
+		}
+	}
+
+	private void compile() {
+		if (compileAttempted || null == compilations || !(expression instanceof SpelExpression)) {
+			return;
+		}
+
+		compileAttempted = true;
+		if (!compilations.attempt(expression)) {
+			return;
+		}
+
+		boolean compiled;
+		try {
+			compiled = ((SpelExpression) expression).compileExpression();
+		} catch (RuntimeException e) {
+			compiled = false;
+		}
+		compilations.record(expression.getExpressionString(), compiled);
 	}
 
 	@Override
@@ -87,12 +195,78 @@ public class ExpressionEvaluationImpl implements ExpressionEvaluation {
 	@Override
 	public <T> void setValue(Map<String, Object> variables, T root, Object value) {
 		EvaluationContext context = getContext(root, variables);
-		expression.setValue(context, value);
+		long start = startTime();
+		boolean failed = true;
+		try {
+			expression.setValue(context, value);
+			failed = false;
+		} finally {
+			record(1, start, failed);
+		}
 	}
 
 	@Override
 	public <T> void setValue(T root, Object value) {
-		expression.setValue(root, value);
+		setValue(Collections.emptyMap(), root, value);
+	}
+
+	@Override
+	public <T> T[] getValues(Class<T> resultClazz, Map<String, Object> variables, List<?> roots, 
+			T[] results, ForkJoinPool pool) {
+		List<?> items = BatchEvaluations.randomAccess(roots);
+		T[] values = BatchEvaluations.resultsOf(results, items.size());
+		BatchEvaluations.evaluate(items.size(), pool, (from, to) -> {
+			ScopedEvaluationContext context = getContext(null, variables);
+			long start = startTime();
+			int i = from;
+			boolean failed = true;
+			try {
+				for (; i < to; i++) {
+					context.setRootObject(items.get(i));
+					values[i] = evaluate(context, resultClazz);
+				}
+				failed = false;
+			} finally {
+				record(i - from, start, failed);
+			}
+		});
+		return values;
+	}
+
+	@Override
+	public <T, A, R> R getValues(Class<T> resultClazz, Map<String, Object> variables, 
+			Stream<?> roots, Collector<? super T, A, R> collector) {
+		if (roots.isParallel()) {
+			return roots.map(root -> getValue(resultClazz, variables, root)).collect(collector);
+		}
+
+		ScopedEvaluationContext context = getContext(null, variables);
+		A container = collector.supplier().get();
+		BiConsumer<A, ? super T> accumulator = collector.accumulator();
+		int[] count = new int[1];
+		long start = startTime();
+		boolean failed = true;
+		try {
+			roots.forEachOrdered(root -> {
+				context.setRootObject(root);
+				accumulator.accept(container, evaluate(context, resultClazz));
+				count[0]++;
+			});
+			failed = false;
+		} finally {
+			record(count[0], start, failed);
+		}
+		return collector.finisher().apply(container);
+	}
+
+	private <T> T evaluate(EvaluationContext context, Class<T> resultClazz) {
+		if (null == expression) {
+			return null;
+		}
+
+		T value = expression.getValue(context, resultClazz);
+		compile();
+		return value;
 	}
 
 }
@@ -1,27 +1,221 @@
 package org.dotspace.oofp.support.expression;
 
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 import org.dotspace.oofp.support.ExpressionEvaluation;
 import org.dotspace.oofp.support.ExpressionEvaluations;
 import org.springframework.beans.BeansException;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.EvaluationException;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.stereotype.Component;
 
 @Component
 public class ExpressionEvaluationsImpl implements ExpressionEvaluations, ApplicationContextAware {
 
+	private static final Object NOT_CONSTANT = new Object();
+
 	private ApplicationContext applicationContext;
 
+	private ParsedExpressionCache parsedExpressions = new ParsedExpressionCache();
+
+	private SpelCompilerMode compilerMode = SpelCompilerMode.OFF;
+
+	private final ExpressionCompilationReport compilations = new ExpressionCompilationReport();
+
+	private volatile EvaluationContext contextTemplate;
+
+	private final ConcurrentMap<String, PropertyPathAccessor> propertyPaths = 
+			new ConcurrentHashMap<>();
+
+	private boolean directPropertyAccess = true;
+
+	private final Map<Expression, Object> constants = 
+			Collections.synchronizedMap(new WeakHashMap<>());
+
+	private boolean constantFolding = true;
+
+	private ExpressionMetrics metrics;
+
+	private boolean readOnly;
+
 	@Override
 	public ExpressionEvaluation parse(String expression) {
-		ExpressionEvaluation result = new ExpressionEvaluationImpl(applicationContext, expression);
+		ExpressionMetrics evaluationMetrics = metrics;
+		if (null != evaluationMetrics && null != expression) {
+			evaluationMetrics.recordParse(expression);
+		}
+
+		Expression parsed = parsedExpressions.parse(expression);
+		ExpressionEvaluation result = new ExpressionEvaluationImpl(
+				getContextTemplate(), parsed, 
+				SpelCompilerMode.OFF != compilerMode ? compilations : null, evaluationMetrics);
 		
-		return result;
+		PropertyPathAccessor accessor = directPropertyAccess ? getPropertyPath(expression) : null;
+		if (null != accessor) {
+			return new PropertyPathEvaluation(accessor, result, evaluationMetrics, readOnly);
+		}
+
+		Object constant = constantFolding && null != parsed 
+				? getConstant(parsed) 
+				: NOT_CONSTANT;
+		return NOT_CONSTANT != constant ? new ConstantEvaluation(constant, result) : result;
+	}
+
+	private Object getConstant(Expression parsed) {
+		Object constant = constants.get(parsed);
+		if (null == constant && !constants.containsKey(parsed)) {
+			constant = fold(parsed);
+			constants.put(parsed, constant);
+		}
+		return constant;
+	}
+
+	private Object fold(Expression parsed) {
+		if (!ConstantEvaluation.isConstant(parsed)) {
+			return NOT_CONSTANT;
+		}
+
+		try {
+			return parsed.getValue(getContextTemplate());
+		} catch (EvaluationException | ArithmeticException e) {
+			return NOT_CONSTANT;
+		}
+	}
+
+	private PropertyPathAccessor getPropertyPath(String expression) {
+		if (null == expression) {
+			return null;
+		}
+
+		PropertyPathAccessor accessor = propertyPaths.get(expression);
+		if (null == accessor) {
+			accessor = PropertyPathAccessor.of(expression);
+			if (null != accessor) {
+				PropertyPathAccessor existing = propertyPaths.putIfAbsent(expression, accessor);
+				accessor = null != existing ? existing : accessor;
+			}
+		}
+		return accessor;
+	}
+
+	private EvaluationContext getContextTemplate() {
+		EvaluationContext template = contextTemplate;
+		if (null == template) {
+			template = readOnly 
+					? ExpressionEvaluationImpl.newReadOnlyContextTemplate() 
+					: ExpressionEvaluationImpl.newContextTemplate(applicationContext);
+			contextTemplate = template;
+		}
+		return template;
+	}
+
+	public ParsedExpressionCache getParsedExpressions() {
+		return parsedExpressions;
+	}
+
+	/**
+	 * Parses through the given cache; a compiler mode set before is applied to its parser.
+	 */
+	public void setParsedExpressions(ParsedExpressionCache parsedExpressions) {
+		if (SpelCompilerMode.OFF != compilerMode) {
+			parsedExpressions.setParser(newParser(compilerMode));
+		}
+		this.parsedExpressions = parsedExpressions;
+	}
+
+	public void setParsedExpressionCacheSize(int parsedExpressionCacheSize) {
+		parsedExpressions.setCapacity(parsedExpressionCacheSize);
+	}
+
+	public SpelCompilerMode getCompilerMode() {
+		return compilerMode;
+	}
+
+	/**
+	 * Switches the parser of the parsed expression cache to the given SpEL compiler mode, dropping
+	 * the expressions it cached; expressions parsed before keep their mode. Under {@code MIXED} an
+	 * expression whose compiled form meets a different root type falls back to interpreted
+	 * evaluation, under {@code IMMEDIATE} the failure is thrown.
+	 */
+	public void setCompilerMode(SpelCompilerMode compilerMode) {
+		this.compilerMode = compilerMode;
+		parsedExpressions.setParser(newParser(compilerMode));
+	}
+
+	private SpelExpressionParser newParser(SpelCompilerMode compilerMode) {
+		return new SpelExpressionParser(new SpelParserConfiguration(
+				compilerMode, getClass().getClassLoader()));
+	}
+
+	public boolean isDirectPropertyAccess() {
+		return directPropertyAccess;
+	}
+
+	/**
+	 * With direct property access on, plain and null-safe property paths are read and written
+	 * through cached getter and setter handles, falling back to SpEL for what they cannot serve.
+	 */
+	public void setDirectPropertyAccess(boolean directPropertyAccess) {
+		this.directPropertyAccess = directPropertyAccess;
+	}
+
+	public boolean isConstantFolding() {
+		return constantFolding;
+	}
+
+	/**
+	 * With constant folding on, an expression of literals and operators only is evaluated once per
+	 * parsed expression and its value handed out without evaluation; one that fails to evaluate is
+	 * left to fail at every evaluation as before.
+	 */
+	public void setConstantFolding(boolean constantFolding) {
+		this.constantFolding = constantFolding;
+	}
+
+	public boolean isReadOnly() {
+		return readOnly;
+	}
+
+	/**
+	 * Evaluates on a {@link org.springframework.expression.spel.support.SimpleEvaluationContext}
+	 * that only reads map keys and public properties and calls instance methods, for rule files
+	 * supplied from outside; expressions parsed before keep their context.
+	 */
+	public void setReadOnly(boolean readOnly) {
+		this.readOnly = readOnly;
+		this.contextTemplate = null;
+	}
+
+	public ExpressionMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Counts parses, evaluations, failures and latency per expression text into the registry;
+	 * expressions parsed while it is null are not measured.
+	 */
+	public void setMetrics(ExpressionMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	public ExpressionCompilationReport getCompilations() {
+		return compilations;
 	}
 
 	@Override
 	public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
 		this.applicationContext = applicationContext;
+		this.contextTemplate = null;
 	}
 
 }
@@ -0,0 +1,73 @@
+package org.dotspace.oofp.support.expression;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Registry of {@link ExpressionStatistics} by expression text, filled by the evaluations once set on
+ * {@link ExpressionEvaluationsImpl#setMetrics(ExpressionMetrics)}. Slowest means the largest total
+ * evaluation time, so a cheap expression run a million times ranks above a slow one run once.
+ */
+public class ExpressionMetrics {
+
+	private final ConcurrentMap<String, ExpressionStatistics> statistics =
+			new ConcurrentHashMap<>();
+
+	void recordParse(String expression) {
+		getOrCreate(expression).recordParse();
+	}
+
+	void recordEvaluations(String expression, int count, long nanos, boolean failed) {
+		getOrCreate(expression).recordEvaluations(count, nanos, failed);
+	}
+
+	private ExpressionStatistics getOrCreate(String expression) {
+		ExpressionStatistics stats = statistics.get(expression);
+		return null != stats ? stats : statistics.computeIfAbsent(expression, ExpressionStatistics::new);
+	}
+
+	public ExpressionStatistics getStatistics(String expression) {
+		return statistics.get(expression);
+	}
+
+	public List<ExpressionStatistics> getAllStatistics() {
+		return new ArrayList<>(statistics.values());
+	}
+
+	public List<ExpressionStatistics> getSlowestExpressions(int top) {
+		return statistics.values().stream()
+				.sorted(Comparator.comparingLong(ExpressionStatistics::getTotalNanos).reversed())
+				.limit(top)
+				.collect(Collectors.toList());
+	}
+
+	public String report(int top) {
+		return getSlowestExpressions(top).stream()
+				.map(ExpressionStatistics::toString)
+				.collect(Collectors.joining(System.lineSeparator(),
+						String.format("slowest %d of %d expressions%n", top, statistics.size()), ""));
+	}
+
+	/**
+	 * Hands {@link #report(int)} to the reporter every period until the returned future is
+	 * cancelled.
+	 */
+	public ScheduledFuture<?> scheduleReport(ScheduledExecutorService scheduler, long period,
+			TimeUnit unit, int top, Consumer<String> reporter) {
+		return scheduler.scheduleAtFixedRate(
+				() -> reporter.accept(report(top)), period, period, unit);
+	}
+
+	public void clear() {
+		statistics.clear();
+	}
+
+}
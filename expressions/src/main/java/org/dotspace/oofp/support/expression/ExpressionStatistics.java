@@ -0,0 +1,86 @@
+package org.dotspace.oofp.support.expression;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of one expression text: parses, evaluations, failed evaluations and the total and
+ * maximum evaluation latency. A batch counts each of its roots and takes its mean per root as
+ * the latency of each.
+ */
+public class ExpressionStatistics {
+
+	private final String expression;
+
+	private final LongAdder parseCount = new LongAdder();
+
+	private final LongAdder evaluationCount = new LongAdder();
+
+	private final LongAdder exceptionCount = new LongAdder();
+
+	private final LongAdder totalNanos = new LongAdder();
+
+	private final AtomicLong maxNanos = new AtomicLong();
+
+	public ExpressionStatistics(String expression) {
+		this.expression = expression;
+	}
+
+	void recordParse() {
+		parseCount.increment();
+	}
+
+	void recordEvaluations(int count, long nanos, boolean failed) {
+		evaluationCount.add(count);
+		totalNanos.add(nanos);
+		if (failed) {
+			exceptionCount.increment();
+		}
+
+		long latency = count > 1 ? nanos / count : nanos;
+		long max = maxNanos.get();
+		while (latency > max && !maxNanos.compareAndSet(max, latency)) {
+			max = maxNanos.get();
+		}
+	}
+
+	public String getExpression() {
+		return expression;
+	}
+
+	public long getParseCount() {
+		return parseCount.sum();
+	}
+
+	public long getEvaluationCount() {
+		return evaluationCount.sum();
+	}
+
+	public long getExceptionCount() {
+		return exceptionCount.sum();
+	}
+
+	public long getTotalNanos() {
+		return totalNanos.sum();
+	}
+
+	public long getMaxNanos() {
+		return maxNanos.get();
+	}
+
+	public long getMeanNanos() {
+		long count = getEvaluationCount();
+		return count > 0 ? getTotalNanos() / count : 0;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s: %d evaluations, %d failed, total %d ms, mean %d us, max %d us, "
+				+ "%d parses", expression, getEvaluationCount(), getExceptionCount(),
+				TimeUnit.NANOSECONDS.toMillis(getTotalNanos()),
+				TimeUnit.NANOSECONDS.toMicros(getMeanNanos()),
+				TimeUnit.NANOSECONDS.toMicros(getMaxNanos()), getParseCount());
+	}
+
+}
@@ -0,0 +1,144 @@
+package org.dotspace.oofp.support.expression;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import org.dotspace.oofp.support.ExpressionEvaluations;
+import org.dotspace.oofp.support.ExpressionSource;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+
+/**
+ * Parses every expression of the {@link ExpressionSource} beans, plus any listed here, in parallel
+ * when the context is refreshed, so the parsed expression cache is warm and broken expressions
+ * surface before the first record. Compilation to bytecode still happens on first evaluation, when
+ * SpEL knows the operand types.
+ */
+public class ExpressionWarmup implements ApplicationListener<ContextRefreshedEvent> {
+
+	private ExpressionEvaluations expressionEvaluations;
+
+	private List<ExpressionSource> expressionSources = new ArrayList<>();
+
+	private Executor executor = ForkJoinPool.commonPool();
+
+	private boolean failOnError;
+
+	private volatile ExpressionWarmupReport lastReport;
+
+	@Override
+	public void onApplicationEvent(ContextRefreshedEvent event) {
+		List<ExpressionSource> sources = new ArrayList<>(expressionSources);
+		sources.addAll(event.getApplicationContext()
+				.getBeansOfType(ExpressionSource.class)
+				.values());
+
+		ExpressionWarmupReport report = warmUp(sources);
+		if (failOnError && report.hasFailures()) {
+			throw new IllegalStateException(report.toString());
+		}
+	}
+
+	public ExpressionWarmupReport warmUp(Collection<ExpressionSource> sources) {
+		Set<String> expressions = new LinkedHashSet<>();
+		sources.stream()
+				.map(ExpressionSource::getConfiguredExpressions)
+				.filter(Objects::nonNull)
+				.forEach(expressions::addAll);
+		expressions.remove(null);
+
+		long start = System.nanoTime();
+		List<CompletableFuture<Outcome>> outcomes = new ArrayList<>();
+		for (String expression : expressions) {
+			outcomes.add(CompletableFuture.supplyAsync(() -> parse(expression), executor));
+		}
+
+		Map<String, Long> parseNanos = new LinkedHashMap<>();
+		Map<String, String> failures = new LinkedHashMap<>();
+		for (CompletableFuture<Outcome> future : outcomes) {
+			Outcome outcome = future.join();
+			parseNanos.put(outcome.expression, outcome.nanos);
+			if (null != outcome.failure) {
+				failures.put(outcome.expression, outcome.failure);
+			}
+		}
+
+		ExpressionWarmupReport report = new ExpressionWarmupReport(
+				parseNanos, failures, System.nanoTime() - start);
+		lastReport = report;
+		return report;
+	}
+
+	private Outcome parse(String expression) {
+		long start = System.nanoTime();
+		String failure = null;
+		try {
+			expressionEvaluations.parse(expression);
+		} catch (RuntimeException e) {
+			failure = String.valueOf(e.getMessage());
+		}
+		return new Outcome(expression, System.nanoTime() - start, failure);
+	}
+
+	public ExpressionEvaluations getExpressionEvaluations() {
+		return expressionEvaluations;
+	}
+
+	public void setExpressionEvaluations(ExpressionEvaluations expressionEvaluations) {
+		this.expressionEvaluations = expressionEvaluations;
+	}
+
+	public List<ExpressionSource> getExpressionSources() {
+		return expressionSources;
+	}
+
+	public void setExpressionSources(List<ExpressionSource> expressionSources) {
+		this.expressionSources = expressionSources;
+	}
+
+	public Executor getExecutor() {
+		return executor;
+	}
+
+	public void setExecutor(Executor executor) {
+		this.executor = executor;
+	}
+
+	public boolean isFailOnError() {
+		return failOnError;
+	}
+
+	public void setFailOnError(boolean failOnError) {
+		this.failOnError = failOnError;
+	}
+
+	public ExpressionWarmupReport getLastReport() {
+		return lastReport;
+	}
+
+	private static class Outcome {
+
+		private final String expression;
+
+		private final long nanos;
+
+		private final String failure;
+
+		private Outcome(String expression, long nanos, String failure) {
+			this.expression = expression;
+			this.nanos = nanos;
+			this.failure = failure;
+		}
+
+	}
+
+}
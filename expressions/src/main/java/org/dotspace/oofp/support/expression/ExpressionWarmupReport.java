@@ -0,0 +1,58 @@
+package org.dotspace.oofp.support.expression;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class ExpressionWarmupReport {
+
+	private final Map<String, Long> parseNanos;
+
+	private final Map<String, String> failures;
+
+	private final long elapsedNanos;
+
+	public ExpressionWarmupReport(Map<String, Long> parseNanos, Map<String, String> failures,
+			long elapsedNanos) {
+		this.parseNanos = Collections.unmodifiableMap(parseNanos);
+		this.failures = Collections.unmodifiableMap(failures);
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	public int getExpressionCount() {
+		return parseNanos.size();
+	}
+
+	public Map<String, Long> getParseNanos() {
+		return parseNanos;
+	}
+
+	public Map<String, String> getFailures() {
+		return failures;
+	}
+
+	public boolean hasFailures() {
+		return !failures.isEmpty();
+	}
+
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	public List<String> getSlowestExpressions(int limit) {
+		return parseNanos.entrySet().stream()
+				.sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+				.limit(limit)
+				.map(Map.Entry::getKey)
+				.collect(Collectors.toList());
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%d expressions warmed up in %d ms, %d failed%s",
+				getExpressionCount(), elapsedNanos / 1_000_000, failures.size(),
+				failures.isEmpty() ? "" : ": " + failures);
+	}
+
+}
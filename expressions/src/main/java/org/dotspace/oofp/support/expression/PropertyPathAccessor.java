@@ -0,0 +1,288 @@
+package org.dotspace.oofp.support.expression;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang3.ClassUtils;
+import org.springframework.beans.BeanUtils;
+import org.springframework.expression.spel.SpelEvaluationException;
+import org.springframework.expression.spel.SpelMessage;
+
+/**
+ * A plain bean path ({@code name}, {@code detail.amount}) or a null-safe one ({@code detail?.amount})
+ * read and written through getter and setter {@link MethodHandle}s resolved once per step and class;
+ * a step on a map reads or writes its key as the map accessor of the evaluation context does.
+ * Whatever the handles cannot serve the way SpEL would, a null root, a null before a plain step, a
+ * missing key or accessor, or a value the setter cannot take as is, is left to the caller's SpEL
+ * fallback.
+ */
+public class PropertyPathAccessor {
+
+	/**
+	 * What {@link #read(Object)} returns for a path left to the SpEL fallback.
+	 */
+	public static final Object UNREAD = new Object();
+
+	private static final Set<String> KEYWORDS = new HashSet<>(Arrays.asList(
+			"true", "false", "null", "and", "or", "not", "div", "mod", "gt", "lt", "le", "ge",
+			"eq", "ne", "new", "instanceof", "matches", "between"));
+
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+	private static final MethodType SETTER_TYPE = MethodType.methodType(
+			void.class, Object.class, Object.class);
+
+	private final String path;
+
+	private final String[] names;
+
+	private final boolean[] nullSafe;
+
+	private final PropertyStep[] steps;
+
+	private PropertyPathAccessor(String path, String[] names, boolean[] nullSafe) {
+		this.path = path;
+		this.names = names;
+		this.nullSafe = nullSafe;
+		this.steps = new PropertyStep[names.length];
+		for (int i = 0; i < names.length; i++) {
+			steps[i] = new PropertyStep(names[i]);
+		}
+	}
+
+	/**
+	 * @return the accessor of the path, or null when the expression is anything but a property path
+	 */
+	public static PropertyPathAccessor of(String expression) {
+		if (null == expression) {
+			return null;
+		}
+
+		List<String> names = new ArrayList<>();
+		List<Boolean> nullSafe = new ArrayList<>();
+		int start = 0;
+		boolean safe = false;
+		for (int i = 0; i <= expression.length(); i++) {
+			char c = i < expression.length() ? expression.charAt(i) : '.';
+			if ('.' != c && '?' != c) {
+				if (!isNameChar(c, i == start)) {
+					return null;
+				}
+				continue;
+			}
+
+			String name = expression.substring(start, i);
+			if (name.isEmpty() || KEYWORDS.contains(name.toLowerCase())) {
+				return null;
+			}
+			names.add(name);
+			nullSafe.add(safe);
+
+			safe = '?' == c;
+			if (safe && (i + 1 >= expression.length() || '.' != expression.charAt(++i))) {
+				return null;
+			}
+			start = i + 1;
+		}
+
+		boolean[] safeSteps = new boolean[nullSafe.size()];
+		for (int i = 0; i < safeSteps.length; i++) {
+			safeSteps[i] = nullSafe.get(i);
+		}
+		return new PropertyPathAccessor(expression, names.toArray(new String[0]), safeSteps);
+	}
+
+	private static boolean isNameChar(char c, boolean first) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || '_' == c || '$' == c
+				|| (!first && c >= '0' && c <= '9');
+	}
+
+	/**
+	 * @return the path with every step null-safe, or the expression unchanged when it is not a path
+	 */
+	public static String nullSafe(String expression) {
+		PropertyPathAccessor accessor = of(expression);
+		return null != accessor ? String.join("?.", accessor.names) : expression;
+	}
+
+	public String getPath() {
+		return path;
+	}
+
+	/**
+	 * @return the value at the path, or {@link #UNREAD} when it is left to the SpEL fallback
+	 */
+	public Object read(Object root) {
+		if (null == root) {
+			return UNREAD;
+		}
+
+		Object target = root;
+		for (int i = 0; i < steps.length; i++) {
+			if (null == target) {
+				return nullSafe[i] ? null : UNREAD;
+			}
+
+			target = read(i, target);
+			if (UNREAD == target) {
+				return UNREAD;
+			}
+		}
+		return target;
+	}
+
+	private Object read(int step, Object target) {
+		Property property = steps[step].get(target.getClass());
+		if (property.mapKey) {
+			Map<?, ?> map = (Map<?, ?>) target;
+			Object value = map.get(names[step]);
+			return null != value || map.containsKey(names[step]) ? value : UNREAD;
+		}
+
+		if (null == property.getter) {
+			return UNREAD;
+		}
+
+		try {
+			return (Object) property.getter.invokeExact(target);
+		} catch (Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new SpelEvaluationException(e, SpelMessage.EXCEPTION_DURING_PROPERTY_READ,
+					names[step], e.getMessage());
+		}
+	}
+
+	/**
+	 * @return whether the value was written, false when it is left to the SpEL fallback
+	 */
+	public boolean write(Object root, Object value) {
+		int last = steps.length - 1;
+		Object target = root;
+		for (int i = 0; i < last && null != target; i++) {
+			target = read(i, target);
+			if (UNREAD == target) {
+				return false;
+			}
+		}
+
+		if (null == target) {
+			return false;
+		}
+
+		Property property = steps[last].get(target.getClass());
+		if (property.mapKey) {
+			return writeKey(target, names[last], value);
+		}
+
+		if (null == property.setter || (null == value
+				? property.valueClazz.isPrimitive()
+				: !ClassUtils.primitiveToWrapper(property.valueClazz).isInstance(value))) {
+			return false;
+		}
+
+		try {
+			property.setter.invokeExact(target, value);
+			return true;
+		} catch (Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new SpelEvaluationException(e, SpelMessage.EXCEPTION_DURING_PROPERTY_WRITE,
+					names[last], e.getMessage());
+		}
+	}
+
+	private static boolean writeKey(Object target, String key, Object value) {
+		try {
+			@SuppressWarnings("unchecked")
+			Map<Object, Object> map = (Map<Object, Object>) target;
+			map.put(key, value);
+			return true;
+		} catch (RuntimeException e) {
+			throw new SpelEvaluationException(e, SpelMessage.EXCEPTION_DURING_PROPERTY_WRITE,
+					key, e.getMessage());
+		}
+	}
+
+	private static class PropertyStep extends ClassValue<Property> {
+
+		private final String name;
+
+		private PropertyStep(String name) {
+			this.name = name;
+		}
+
+		@Override
+		protected Property computeValue(Class<?> type) {
+			if (Map.class.isAssignableFrom(type)) {
+				return Property.MAP_KEY;
+			}
+
+			if (Class.class == type || ClassLoader.class.isAssignableFrom(type)) {
+				return Property.UNRESOLVED;
+			}
+
+			try {
+				PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(type, name);
+				if (null == descriptor) {
+					return Property.UNRESOLVED;
+				}
+
+				MethodHandles.Lookup lookup = MethodHandles.lookup();
+				Method readMethod = descriptor.getReadMethod();
+				if (null != readMethod && Object.class == readMethod.getDeclaringClass()) {
+					return Property.UNRESOLVED;
+				}
+
+				Method writeMethod = descriptor.getWriteMethod();
+				return new Property(
+						null != readMethod ? unreflect(lookup, readMethod).asType(GETTER_TYPE) : null,
+						null != writeMethod ? unreflect(lookup, writeMethod).asType(SETTER_TYPE) : null,
+						descriptor.getPropertyType(), false);
+			} catch (IllegalAccessException | RuntimeException e) {
+				return Property.UNRESOLVED;
+			}
+		}
+
+		private static MethodHandle unreflect(MethodHandles.Lookup lookup, Method method)
+				throws IllegalAccessException {
+			method.setAccessible(true);
+			return lookup.unreflect(method);
+		}
+
+	}
+
+	private static class Property {
+
+		private static final Property UNRESOLVED = new Property(null, null, null, false);
+
+		private static final Property MAP_KEY = new Property(null, null, null, true);
+
+		private final MethodHandle getter;
+
+		private final MethodHandle setter;
+
+		private final Class<?> valueClazz;
+
+		private final boolean mapKey;
+
+		private Property(MethodHandle getter, MethodHandle setter, Class<?> valueClazz,
+				boolean mapKey) {
+			this.getter = getter;
+			this.setter = setter;
+			this.valueClazz = valueClazz;
+			this.mapKey = mapKey;
+		}
+
+	}
+
+}
@@ -0,0 +1,163 @@
+package org.dotspace.oofp.support.expression;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import org.apache.commons.lang3.ClassUtils;
+import org.dotspace.oofp.support.ExpressionEvaluation;
+
+/**
+ * Evaluates a property path through its {@link PropertyPathAccessor}, handing every evaluation
+ * the accessor cannot serve to the parsed SpEL evaluation. Variables are ignored on the direct
+ * route since a path never refers to them.
+ */
+public class PropertyPathEvaluation implements ExpressionEvaluation {
+
+	private final PropertyPathAccessor accessor;
+
+	private final ExpressionEvaluation fallback;
+
+	private final ExpressionMetrics metrics;
+
+	private final boolean readOnly;
+
+	protected PropertyPathEvaluation(PropertyPathAccessor accessor, ExpressionEvaluation fallback) {
+		this(accessor, fallback, null, false);
+	}
+
+	/**
+	 * When read-only, every write goes to the fallback so its evaluation context decides.
+	 */
+	protected PropertyPathEvaluation(PropertyPathAccessor accessor, ExpressionEvaluation fallback,
+			ExpressionMetrics metrics, boolean readOnly) {
+		this.accessor = accessor;
+		this.fallback = fallback;
+		this.metrics = metrics;
+		this.readOnly = readOnly;
+	}
+
+	@Override
+	public <T> T getValue(Class<T> resultClazz, Map<String, Object> variables, Object root) {
+		Object value = read(root);
+		if (isResultOf(resultClazz, value)) {
+			return cast(value);
+		}
+		return fallback.getValue(resultClazz, variables, root);
+	}
+
+	@Override
+	public <T> T getValue(Class<T> resultClazz, Object root) {
+		Object value = read(root);
+		if (isResultOf(resultClazz, value)) {
+			return cast(value);
+		}
+		return fallback.getValue(resultClazz, root);
+	}
+
+	private boolean isResultOf(Class<?> resultClazz, Object value) {
+		if (PropertyPathAccessor.UNREAD == value) {
+			return false;
+		}
+		if (null == resultClazz) {
+			return true;
+		}
+		return null == value
+				? !resultClazz.isPrimitive()
+				: ClassUtils.primitiveToWrapper(resultClazz).isInstance(value);
+	}
+
+	@Override
+	public <T> T getValueWithVariables(Map<String, Object> variables, Object root) {
+		Object value = read(root);
+		return PropertyPathAccessor.UNREAD != value
+				? cast(value)
+				: fallback.getValueWithVariables(variables, root);
+	}
+
+	@Override
+	public <T> T getValue(Object root) {
+		Object value = read(root);
+		return PropertyPathAccessor.UNREAD != value ? cast(value) : fallback.getValue(root);
+	}
+
+	@Override
+	public <T> T getValue() {
+		return fallback.getValue();
+	}
+
+	private Object read(Object root) {
+		if (null == metrics) {
+			return accessor.read(root);
+		}
+
+		long start = System.nanoTime();
+		boolean failed = true;
+		Object value = PropertyPathAccessor.UNREAD;
+		try {
+			value = accessor.read(root);
+			failed = false;
+			return value;
+		} finally {
+			if (failed || PropertyPathAccessor.UNREAD != value) {
+				metrics.recordEvaluations(accessor.getPath(), 1, System.nanoTime() - start, failed);
+			}
+		}
+	}
+
+	@Override
+	public <T> void setValue(Map<String, Object> variables, T root, Object value) {
+		if (!write(root, value)) {
+			fallback.setValue(variables, root, value);
+		}
+	}
+
+	@Override
+	public <T> void setValue(T root, Object value) {
+		if (!write(root, value)) {
+			fallback.setValue(root, value);
+		}
+	}
+
+	private boolean write(Object root, Object value) {
+		if (readOnly) {
+			return false;
+		}
+
+		if (null == metrics) {
+			return accessor.write(root, value);
+		}
+
+		long start = System.nanoTime();
+		boolean failed = true;
+		boolean written = false;
+		try {
+			written = accessor.write(root, value);
+			failed = false;
+			return written;
+		} finally {
+			if (failed || written) {
+				metrics.recordEvaluations(accessor.getPath(), 1, System.nanoTime() - start, failed);
+			}
+		}
+	}
+
+	@Override
+	public <T> T[] getValues(Class<T> resultClazz, Map<String, Object> variables, List<?> roots, 
+			T[] results, ForkJoinPool pool) {
+		List<?> items = BatchEvaluations.randomAccess(roots);
+		T[] values = BatchEvaluations.resultsOf(results, items.size());
+		BatchEvaluations.evaluate(items.size(), pool, (from, to) -> {
+			for (int i = from; i < to; i++) {
+				values[i] = getValue(resultClazz, variables, items.get(i));
+			}
+		});
+		return values;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T cast(Object value) {
+		return (T) value;
+	}
+
+}
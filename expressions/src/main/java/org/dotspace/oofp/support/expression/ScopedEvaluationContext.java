@@ -0,0 +1,105 @@
+package org.dotspace.oofp.support.expression;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.expression.BeanResolver;
+import org.springframework.expression.ConstructorResolver;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.MethodResolver;
+import org.springframework.expression.OperatorOverloader;
+import org.springframework.expression.PropertyAccessor;
+import org.springframework.expression.TypeComparator;
+import org.springframework.expression.TypeConverter;
+import org.springframework.expression.TypeLocator;
+import org.springframework.expression.TypedValue;
+
+/**
+ * A per-call evaluation context holding only the root object and the variables; resolvers,
+ * accessors and converters come from a shared template so their reflection caches survive between
+ * calls. The template must not be modified once shared. A batch evaluation moves one context from
+ * root to root, so a context is confined to the thread using it.
+ */
+class ScopedEvaluationContext implements EvaluationContext {
+
+	private final EvaluationContext template;
+
+	private TypedValue rootObject;
+
+	private Map<String, Object> variables;
+
+	ScopedEvaluationContext(EvaluationContext template, Object rootObject) {
+		this.template = template;
+		setRootObject(rootObject);
+	}
+
+	void setRootObject(Object rootObject) {
+		this.rootObject = null != rootObject ? new TypedValue(rootObject) : TypedValue.NULL;
+	}
+
+	@Override
+	public TypedValue getRootObject() {
+		return rootObject;
+	}
+
+	@Override
+	public List<PropertyAccessor> getPropertyAccessors() {
+		return template.getPropertyAccessors();
+	}
+
+	@Override
+	public List<ConstructorResolver> getConstructorResolvers() {
+		return template.getConstructorResolvers();
+	}
+
+	@Override
+	public List<MethodResolver> getMethodResolvers() {
+		return template.getMethodResolvers();
+	}
+
+	@Override
+	public BeanResolver getBeanResolver() {
+		return template.getBeanResolver();
+	}
+
+	@Override
+	public TypeLocator getTypeLocator() {
+		return template.getTypeLocator();
+	}
+
+	@Override
+	public TypeConverter getTypeConverter() {
+		return template.getTypeConverter();
+	}
+
+	@Override
+	public TypeComparator getTypeComparator() {
+		return template.getTypeComparator();
+	}
+
+	@Override
+	public OperatorOverloader getOperatorOverloader() {
+		return template.getOperatorOverloader();
+	}
+
+	@Override
+	public void setVariable(String name, Object value) {
+		if (null == variables) {
+			variables = new HashMap<>();
+		}
+
+		if (null != value) {
+			variables.put(name, value);
+		} else {
+			variables.remove(name);
+		}
+	}
+
+	@Override
+	public Object lookupVariable(String name) {
+		Object value = null != variables ? variables.get(name) : null;
+		return null != value ? value : template.lookupVariable(name);
+	}
+
+}
@@ -2,23 +2,37 @@ package org.dotspace.oofp.util.functional;
 
 import java.util.Collection;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Collector;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.apache.commons.lang3.StringUtils;
+import org.dotspace.oofp.support.ExpressionEvaluation;
 import org.dotspace.oofp.support.ExpressionEvaluations;
+import org.dotspace.oofp.support.ExpressionSource;
 import org.dotspace.oofp.support.builder.GeneralBuilders;
 import org.dotspace.oofp.support.builder.writer.GeneralBuildingWriters;
 import org.dotspace.oofp.util.Associable;
 
-public class FunctionalSupport {
+public class FunctionalSupport implements ExpressionSource {
 
 	private static final String VAR_OPTS = "options";
 
+	private static final String SUPPLIER = "supplier";
+
+	private static final String PREDICATE = "predicate";
+
+	private static final String FUNCTION = "function";
+
+	private static final String COLLECTOR = "collector";
+
+	private static final String COLLECTOR_OF_COLLECTION = "collectorOfCollection";
+
 	private ExpressionEvaluations expressionEvaluations;
 	
 	private Associable<FunctionalSupport> functors;
@@ -30,8 +44,15 @@ public class FunctionalSupport {
 	private Map<String, String> functions;
 	
 	private Map<String, String> collectors;
+	
+	private ResolvedFunctorCache resolvedFunctors = new ResolvedFunctorCache();
 		
 	public <T> Supplier<T> getSupplier(String name, Object options) {
+		return resolvedFunctors.resolve(SUPPLIER, name, options, 
+				() -> this.<T>resolveSupplier(name, options));
+	}
+
+	private <T> Supplier<T> resolveSupplier(String name, Object options) {
 		String supplierExpression = Optional.ofNullable(name)
 				.map(suppliers::get)
 				.orElse(null);
@@ -55,6 +76,11 @@ public class FunctionalSupport {
 	}
 	
 	public <T> Predicate<T> getPredicate(String name, Object options) {
+		return resolvedFunctors.resolve(PREDICATE, name, options, 
+				() -> this.<T>resolvePredicate(name, options));
+	}
+
+	private <T> Predicate<T> resolvePredicate(String name, Object options) {
 		String predicateExpression = Optional.ofNullable(name)
 				.map(predicates::get)
 				.orElse(null);
@@ -80,6 +106,11 @@ public class FunctionalSupport {
 	
 	public <T, R> Function<T, Collection<R>> getFunctionReturnCollection(
 			String name, Object options) {
+		return resolvedFunctors.resolve(FUNCTION, name, options, 
+				() -> this.<T, Collection<R>>resolveFunction(name, options));
+	}
+
+	private <T, R> Function<T, R> resolveFunction(String name, Object options) {
 		String functionExpression = Optional.ofNullable(name)
 				.map(functions::get)
 				.orElse(null);
@@ -90,7 +121,7 @@ public class FunctionalSupport {
 		}
 		
 		@SuppressWarnings("unchecked")
-		Function<T, Collection<R>> function = expressionEvaluations.parse(functionExpression)
+		Function<T, R> function = expressionEvaluations.parse(functionExpression)
 				.getValue(Function.class, GeneralBuilders
 						.of(Suppliers.newHashMap(String.class, Object.class))
 						.with(GeneralBuildingWriters.set(BiConsumers.forMapOf(
@@ -101,44 +132,13 @@ public class FunctionalSupport {
 	}
 	
 	public <T, R> Function<T, R> getFunction(String name, Object options) {
-		String functionExpression = Optional.ofNullable(name)
-				.map(functions::get)
-				.orElse(null);
-		
-		if (null == functionExpression) {
-			throw new IllegalArgumentException(String.format(
-					"illegal argument to get function name of %s", name));
-		}
-		
-		@SuppressWarnings("unchecked")
-		Function<T, R> function = expressionEvaluations.parse(functionExpression)
-				.getValue(Function.class, GeneralBuilders
-						.of(Suppliers.newHashMap(String.class, Object.class))
-						.with(GeneralBuildingWriters.set(BiConsumers.forMapOf(
-								VAR_OPTS, Object.class), options))
-						.build(), functors);
-		return function;
+		return resolvedFunctors.resolve(FUNCTION, name, options, 
+				() -> this.<T, R>resolveFunction(name, options));
 	}
 
 	public <T, R> Function<T, Stream<R>> getFunctionReturnStream(String name, Object options) {
-		String functionExpression = Optional.ofNullable(name)
-				.map(functions::get)
-				.orElse(null);
-		
-		if (null == functionExpression) {
-			throw new IllegalArgumentException(String.format(
-					"illegal argument to get function name of %s", name));
-		}
-		
-		@SuppressWarnings("unchecked")
-		Function<T, Stream<R>> function = expressionEvaluations.parse(functionExpression)
-				.getValue(Function.class, GeneralBuilders
-						.of(Suppliers.newHashMap(String.class, Object.class))
-						.with(GeneralBuildingWriters.set(BiConsumers.forMapOf(
-								VAR_OPTS, Object.class), options))
-						.build(), functors);
-		
-		return function;		
+		return resolvedFunctors.resolve(FUNCTION, name, options, 
+				() -> this.<T, Stream<R>>resolveFunction(name, options));
 	}
 	
 	public <T, R> Function<T, R> getFunction(String name) {
@@ -147,13 +147,19 @@ public class FunctionalSupport {
 
 	public <R, A> Collector<R, A, Collection<R>> getCollectorOfCollection(
 			String name, Object options) {
+		return resolvedFunctors.resolve(COLLECTOR_OF_COLLECTION, name, options, 
+				() -> this.<R, A, Collection<R>>resolveCollector(name, options, true));
+	}
+
+	private <T, A, R> Collector<T, A, R> resolveCollector(String name, Object options, 
+			boolean converting) {
 		String collectorExpression = Optional.ofNullable(name)
 				.map(collectors::get)
 				.orElse(null);
 		
 		if (null == collectorExpression) {
 			throw new IllegalArgumentException(String.format(
-					"illegal argument to get function name of %s", name));
+					"illegal argument to get collector name of %s", name));
 		}
 		
 		Map<String, Object> vars = GeneralBuilders
@@ -162,47 +168,48 @@ public class FunctionalSupport {
 						VAR_OPTS, Object.class), options))
 				.build();
 		
+		ExpressionEvaluation evaluation = expressionEvaluations.parse(collectorExpression);
 		@SuppressWarnings("unchecked")
-		Collector<R, A, Collection<R>> collector = expressionEvaluations.parse(collectorExpression)
-				.getValue(Collector.class, vars, functors);
+		Collector<T, A, R> collector = converting 
+				? evaluation.getValue(Collector.class, vars, functors) 
+				: evaluation.getValueWithVariables(vars, functors);
 		
 		return collector;
 	}
 	
 	public <T, A, R> Collector<T, A, R> getCollector(
 			String name, Object options) {
-		String collectionExpression = Optional.ofNullable(name)
-				.map(collectors::get)
-				.orElse(null);
-		
-		if (null == collectionExpression) {
-			throw new IllegalArgumentException(String.format(
-					"illegal argument to get collector name of %s", name));
-		}
-		
-		Collector<T, A, R> collector = expressionEvaluations
-				.parse(collectionExpression)
-				.getValueWithVariables(GeneralBuilders
-						.of(Suppliers.newHashMap(
-								String.class, Object.class))
-						.with(GeneralBuildingWriters.set(BiConsumers.forMapOf(
-								VAR_OPTS, Object.class), options))
-						.build(), functors);
-		
-		return collector;
-
+		return resolvedFunctors.resolve(COLLECTOR, name, options, 
+				() -> this.<T, A, R>resolveCollector(name, options, false));
 	}
 
 	public Collector<Object, Object, Object> getCollector(String name) {
 		return getCollector(name, null);
 	}
 	
+	public ResolvedFunctorCache getResolvedFunctors() {
+		return resolvedFunctors;
+	}
+
+	/**
+	 * Suppliers, predicates, functions and collectors are resolved once per name and options through
+	 * this cache; {@link ResolvedFunctorCache} tells how options match.
+	 */
+	public void setResolvedFunctors(ResolvedFunctorCache resolvedFunctors) {
+		this.resolvedFunctors = resolvedFunctors;
+	}
+
+	public void setResolvedFunctorCacheSize(int resolvedFunctorCacheSize) {
+		resolvedFunctors.setCapacity(resolvedFunctorCacheSize);
+	}
+
 	public Map<String, String> getPredicates() {
 		return predicates;
 	}
 
 	public void setPredicates(Map<String, String> predicates) {
 		this.predicates = predicates;
+		resolvedFunctors.clear();
 	}
 
 	public Map<String, String> getFunctions() {
@@ -211,6 +218,7 @@ public class FunctionalSupport {
 
 	public void setFunctions(Map<String, String> functions) {
 		this.functions = functions;
+		resolvedFunctors.clear();
 	}
 
 	public Map<String, String> getCollectors() {
@@ -219,6 +227,15 @@ public class FunctionalSupport {
 
 	public void setCollectors(Map<String, String> collectors) {
 		this.collectors = collectors;
+		resolvedFunctors.clear();
+	}
+
+	@Override
+	public Collection<String> getConfiguredExpressions() {
+		return Stream.of(suppliers, predicates, functions, collectors)
+				.filter(Objects::nonNull)
+				.flatMap(m -> m.values().stream())
+				.collect(Collectors.toList());
 	}
 
 	public Object getOptions(String expression) {
@@ -232,6 +249,7 @@ public class FunctionalSupport {
 	public void setFunctors(Associable<FunctionalSupport> functors) {
 		functors.associate(this);
 		this.functors = functors;
+		resolvedFunctors.clear();
 	}
 
 	public Map<String, String> getSuppliers() {
@@ -240,6 +258,7 @@ public class FunctionalSupport {
 
 	public void setSuppliers(Map<String, String> suppliers) {
 		this.suppliers = suppliers;
+		resolvedFunctors.clear();
 	}
 
 	public ExpressionEvaluations getExpressionEvaluations() {
@@ -4,6 +4,7 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -27,6 +28,7 @@ import java.util.stream.Stream;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
+import org.dotspace.oofp.support.ExpressionEvaluation;
 import org.dotspace.oofp.support.ExpressionEvaluations;
 import org.dotspace.oofp.support.builder.GeneralBuilders;
 import org.dotspace.oofp.support.builder.writer.GeneralBuildingWriters;
@@ -58,6 +60,8 @@ public class GeneralFunctors implements Associable<FunctionalSupport> {
 
 	private static final String MAPPER = "mapper";
 	
+	private static final Pattern FORMAT_PLACEHOLDER = Pattern.compile("\\$\\{([^\\{\\}]*)\\}");
+	
 	protected FunctionalSupport functionalSupport;
 	protected ExpressionEvaluations expressionEvaluations;
 	
@@ -229,99 +233,93 @@ public class GeneralFunctors implements Associable<FunctionalSupport> {
 	}
 	
 	public <T, U> Predicate<T> equalsReading(Map<String, Object> opts) {
-		Function<T, Optional<U>> reader = x -> readValue(opts, x);
+		Function<T, Optional<U>> reader = getReader(opts);
+		Function<T, Object> comparand = getComparand(opts);
 				
 		return x -> Optional.ofNullable(x).flatMap(reader)
-				.filter(v -> {
-					Object vl = getValue(x, opts);
-
-					return v.equals(vl);
-				})
+				.filter(v -> v.equals(comparand.apply(x)))
 				.isPresent();
 	}
 
 	protected <T, U> Optional<U> readValue(Map<String, Object> opts, T x) {
+		return this.<T, U>getReader(opts).apply(x);
+	}
+
+	protected <T, U> Function<T, Optional<U>> getReader(Map<String, Object> opts) {
 		Object reader = opts.get(READER);
 		
 		if (reader instanceof String) {
-			return Optional.ofNullable(reader)
-					.map(Casters.forText())
-					.map(expr -> expressionEvaluations.parse(expr).getValue(x));
+			ExpressionEvaluation evaluation = expressionEvaluations.parse((String) reader);
+			return x -> Optional.ofNullable(evaluation.<U>getValue(x));
 		}
 		
 		if (reader instanceof List) {
+			List<Pair<ExpressionEvaluation, Map<String, Object>>> steps = ((List<?>) reader).stream()
+					.map(rdr -> {
+						if (rdr instanceof String) {
+							return Optional.ofNullable(Pair.of((String) rdr, null));
+						}
+						
+						if (rdr instanceof Map) {
+							@SuppressWarnings("unchecked")
+							Map<String, Object> rdrAsMap = (Map<String, Object>) rdr;
+							Pair<String, Object> result = Pair.of(
+									(String) rdrAsMap.get(NAME), rdrAsMap.get(OPTIONS));
+							return Optional.ofNullable(result);
+						}
+						
+						return Optional.<Pair<String, Object>>empty();
+					})
+					.filter(Optional::isPresent)
+					.map(Optional::get)
+					.map(rdr -> Pair.of(expressionEvaluations.parse(rdr.getLeft()), 
+							constructVariables(rdr.getRight())))
+					.collect(Collectors.toList());
 			
-			class Context {
-				Optional<Object> value;
-				
-				Context(Object value) {
-					this.value = Optional.ofNullable(value);
-				}
-				
-				void map(Pair<String, Object> reader) {
-					Map<String, Object> variables = Optional
-							.ofNullable(reader.getRight())
-							.map(opts -> constructVariables(reader))
-							.orElse(Collections.emptyMap());
-					
-					this.value = this.value
-							.map(v -> expressionEvaluations.parse(reader.getLeft())
-									.getValueWithVariables(variables, v));
-				}
-
-				private Map<String, Object> constructVariables(
-						Pair<String, Object> reader) {
-					return GeneralBuilders.of(Suppliers.newHashMap(
-							String.class, Object.class)).with(
-									GeneralBuildingWriters.set(BiConsumers.forMapOf(
-											OPTIONS, Object.class), 
-											reader.getRight()))
-							.build();
-				}
-			}
-
-			Context ctx = new Context(x);
-			
-			
-			Stream<?> readerStream = ((List<?>) reader).stream();
-			
-			readerStream
-			.map(rdr -> {
-				if (rdr instanceof String) {
-					return Optional.ofNullable(Pair.of((String)rdr, null));
-				}
-				
-				if (rdr instanceof Map) {
-					@SuppressWarnings("unchecked")
-					Map<String, Object> rdrAsMap = (Map<String, Object>) rdr;
-					Pair<String, Object> result = Pair.of(
-							(String) rdrAsMap.get(NAME), rdrAsMap.get(OPTIONS));
-					return Optional.ofNullable(result);
+			return x -> {
+				Object value = x;
+				for (Pair<ExpressionEvaluation, Map<String, Object>> step : steps) {
+					if (null == value) {
+						break;
+					}
+					value = step.getLeft().getValueWithVariables(step.getRight(), value);
 				}
 				
-				return Optional.<Pair<String, Object>>empty();
-			})
-			.filter(Optional::isPresent)
-			.map(Optional::get)
-			.forEach(rdr -> ctx.map(rdr));
+				@SuppressWarnings("unchecked")
+				Optional<U> result = Optional.ofNullable((U) value);
 				
-			@SuppressWarnings("unchecked")
-			Optional<U> result = (Optional<U>) ctx.value;
-			
-			return result;
+				return result;
+			};
+		}
+		
+		return x -> Optional.empty();
+	}
+
+	private Map<String, Object> constructVariables(Object options) {
+		if (null == options) {
+			return Collections.emptyMap();
 		}
 		
-		return Optional.empty();
+		return GeneralBuilders.of(Suppliers.newHashMap(String.class, Object.class))
+				.with(GeneralBuildingWriters.set(
+						BiConsumers.forMapOf(OPTIONS, Object.class), options))
+				.build();
 	}
 	
-	private <T, V> V getValue(T x, Map<String, Object> opts) {
+	private <T, V> Function<T, V> getComparand(Map<String, Object> opts) {
 		@SuppressWarnings("unchecked")
-		V value = (V) opts.get("constant");
+		V constant = (V) opts.get("constant");
 		
-		return Optional.ofNullable(opts.get(VALUE))
+		ExpressionEvaluation evaluation = Optional.ofNullable(opts.get(VALUE))
 				.map(Casters.forText())
-				.map(expr -> expressionEvaluations.parse(expr).<V>getValue(x))
-				.orElse(Optional.ofNullable(value).orElse(null));
+				.map(expressionEvaluations::parse)
+				.orElse(null);
+		
+		if (null == evaluation) {
+			return x -> constant;
+		}
+		
+		return x -> Optional.ofNullable(evaluation.<V>getValue(x)).orElse(constant);
 	}
 	
 	public <T> Predicate<T> notEqualsReading(Map<String, Object> opts) {
@@ -335,7 +333,9 @@ public class GeneralFunctors implements Associable<FunctionalSupport> {
 		@SuppressWarnings("unchecked")
 		Map<String, Object> parameters = (Map<String, Object>) options.get(PARAMETERS);
 		
-		return x -> expressionEvaluations.parse(expression).getValue(Boolean.class, parameters , x);
+		ExpressionEvaluation evaluation = expressionEvaluations.parse(expression);
+		
+		return x -> evaluation.getValue(Boolean.class, parameters , x);
 	}
 	
 	public <T> Predicate<T> allMatch(Map<String, Object> options) {
@@ -345,9 +345,16 @@ public class GeneralFunctors implements Associable<FunctionalSupport> {
 		@SuppressWarnings("unchecked")
 		Map<String, Object> parameters = (Map<String, Object>) options.get(PARAMETERS);
 		
-		return x -> predicateExpressions.stream()
-				.allMatch(expr -> expressionEvaluations.parse(expr)
-						.getValue(Boolean.class, parameters, x));
+		ExpressionEvaluation[] evaluations = parseAll(predicateExpressions);
+		
+		return x -> {
+			for (ExpressionEvaluation evaluation : evaluations) {
+				if (!evaluation.getValue(Boolean.class, parameters, x)) {
+					return false;
+				}
+			}
+			return true;
+		};
 	}
 	
 	public <T> Predicate<T> anyMatch(Map<String, Object> options) {
@@ -357,9 +364,22 @@ public class GeneralFunctors implements Associable<FunctionalSupport> {
 		@SuppressWarnings("unchecked")
 		Map<String, Object> parameters = (Map<String, Object>) options.get(PARAMETERS);
 		
-		return x -> predicateExpressions.stream()
-				.anyMatch(expr -> expressionEvaluations.parse(expr)
-						.getValue(Boolean.class, parameters, x));
+		ExpressionEvaluation[] evaluations = parseAll(predicateExpressions);
+		
+		return x -> {
+			for (ExpressionEvaluation evaluation : evaluations) {
+				if (evaluation.getValue(Boolean.class, parameters, x)) {
+					return true;
+				}
+			}
+			return false;
+		};
+	}
+	
+	private ExpressionEvaluation[] parseAll(List<String> expressions) {
+		return expressions.stream()
+				.map(expressionEvaluations::parse)
+				.toArray(ExpressionEvaluation[]::new);
 	}
 	
 	public <T> Function<T, Object> lookup(Map<String, Object> options) {
@@ -368,7 +388,9 @@ public class GeneralFunctors implements Associable<FunctionalSupport> {
 		@SuppressWarnings("unchecked")
 		Map<String, Object> parameters = (Map<String, Object>) options.get(PARAMETERS);
 		
-		return x -> expressionEvaluations.parse(expression).getValueWithVariables(parameters, x);
+		ExpressionEvaluation evaluation = expressionEvaluations.parse(expression);
+		
+		return x -> evaluation.getValueWithVariables(parameters, x);
 	}
 	
 	public <T> Predicate<T> in(T[] values) {
@@ -393,12 +415,9 @@ public class GeneralFunctors implements Associable<FunctionalSupport> {
 	}
 	
 	public <T> Predicate<T> isNotNullReading(Map<String, Object> opts) {
+		Function<T, Optional<T>> reader = getReader(opts);
 		
-		return x -> {
-			Optional<T> propValue = this.<T, T>readValue(opts, x);
-
-			return Objects.nonNull(propValue.orElse(null));
-		};
+		return x -> reader.apply(x).isPresent();
 		
 	}
 	
@@ -407,21 +426,29 @@ public class GeneralFunctors implements Associable<FunctionalSupport> {
 	}
 	
 	public <T, V> Predicate<T> equalsReadingIn(Map<String, Object> opts) {
+		Function<T, Optional<V>> reader = getReader(opts);
+		List<Object> values = Optional.ofNullable(opts.get("values"))
+				.map(Casters.forList(Object.class))
+				.orElse(Collections.emptyList());
+		
 		return x -> {
-			Optional<V> propValue = this.<T, V>readValue(opts, x);
+			V propValue = reader.apply(x).orElse(null);
 			
-			return Optional.ofNullable(opts.get("values"))
-					.map(Casters.forList(Object.class))
-					.orElse(Collections.emptyList())
-					.stream()
-					.anyMatch(value -> value.equals(propValue.orElse(null)));
+			for (Object value : values) {
+				if (value.equals(propValue)) {
+					return true;
+				}
+			}
+			return false;
 		};
 	}
 	
 	public <T, V extends Comparable<V>> Predicate<T> compareReadingSelection(Map<String, Object> opts) {
+		Function<T, Optional<Collection<V>>> reader = getReader(opts);
+		Function<T, V> comparand = getComparand(opts);
+		
 		return x -> {
-			Optional<Collection<V>> values = this.<T, Collection<V>>readValue(
-					opts, x);
+			Optional<Collection<V>> values = reader.apply(x);
 			
 			Function<Collection<V>, V> selector = Optional
 					.ofNullable(opts.get(SELECTOR))
@@ -436,7 +463,7 @@ public class GeneralFunctors implements Associable<FunctionalSupport> {
 			
 			V value = values.map(selector).orElse(null);
 			
-			V vl = getValue(x, opts);
+			V vl = comparand.apply(x);
 			
 			int result = value.compareTo(vl);
 			
@@ -450,10 +477,13 @@ public class GeneralFunctors implements Associable<FunctionalSupport> {
 	
 	public <T, V extends Comparable<V>> Predicate<T> compareReading(
 			Map<String, Object> opts) {
+		Function<T, Optional<V>> reader = getReader(opts);
+		Function<T, V> comparand = getComparand(opts);
+		
 		return x -> {
-			Optional<V> value = this.<T, V>readValue(opts, x);
+			Optional<V> value = reader.apply(x);
 			
-			V vl = getValue(x, opts);
+			V vl = comparand.apply(x);
 			
 			Optional<Integer> result = value.map(v -> v.compareTo(vl));
 			
@@ -493,8 +523,10 @@ public class GeneralFunctors implements Associable<FunctionalSupport> {
 	}
 		
 	public <T, V> Function<T, V> withReading(Map<String, Object> opts) {
+		Function<T, Optional<V>> reader = getReader(opts);
+		
 		return x -> {
-			V value = this.<T, V>readValue(opts, x).orElse(null);
+			V value = reader.apply(x).orElse(null);
 			
 			return value;
 		};
@@ -693,32 +725,33 @@ public class GeneralFunctors implements Associable<FunctionalSupport> {
 	}
 	
 	public <T> Function<T, String> format(String expression) {
-		class Context {
-			int i = 0;
-			StringBuilder result = new StringBuilder();
+		List<String> literals = new ArrayList<>();
+		List<ExpressionEvaluation> evaluations = new ArrayList<>();
+		
+		Matcher m = FORMAT_PLACEHOLDER.matcher(expression);
+		int i = 0;
+		while (m.find()) {
+			literals.add(expression.substring(i, m.start()));
+			evaluations.add(expressionEvaluations.parse(m.group(1)));
+			i = m.end();
 		}
-		
-		Context ctx = new Context();
+		String tail = expression.substring(i);
 		
 		return x -> {
-			Pattern p = Pattern.compile("\\$\\{([^\\{\\}]*)\\}");
-
-			Matcher m = p.matcher(expression);
-			while (m.find()) {
-				String prop = m.group(1);
-				Object value = expressionEvaluations.parse(prop).getValue(x);
-				
-				ctx.result.append(expression.subSequence(ctx.i, m.start()));
-				ctx.result.append(value.toString());
-				ctx.i = m.end();
+			StringBuilder result = new StringBuilder(expression.length());
+			for (int j = 0; j < evaluations.size(); j++) {
+				result.append(literals.get(j));
+				result.append(evaluations.get(j).<Object>getValue(x).toString());
 			}
-			ctx.result.append(expression.substring(ctx.i));
-			return ctx.result.toString();
+			result.append(tail);
+			return result.toString();
 		};
 	}
 	
 	public <T, R> Function<T, R> read(String expression) {
-		return x -> expressionEvaluations.parse(expression).getValue(x);
+		ExpressionEvaluation evaluation = expressionEvaluations.parse(expression);
+		
+		return x -> evaluation.getValue(x);
 	}
 	
 	@Override
@@ -0,0 +1,181 @@
+package org.dotspace.oofp.util.functional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU of functors resolved by {@link FunctionalSupport}, keyed by kind, name and options.
+ * Map, list and set options match by value against a copy taken when a resolved functor is kept, so
+ * a configuration map rebuilt per call resolves once and one changed afterwards resolves anew; any
+ * other options object matches by its {@code equals}, which for most types is identity.
+ */
+public class ResolvedFunctorCache {
+
+	public static final int DEFAULT_CAPACITY = 1024;
+
+	private final Map<FunctorKey, Object> functors;
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	private volatile int capacity;
+
+	public ResolvedFunctorCache() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	public ResolvedFunctorCache(int capacity) {
+		this.capacity = capacity;
+		this.functors = new LinkedHashMap<FunctorKey, Object>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<FunctorKey, Object> eldest) {
+				return size() > ResolvedFunctorCache.this.capacity;
+			}
+
+		};
+	}
+
+	public <F> F resolve(String kind, String name, Object options, Supplier<F> resolver) {
+		if (capacity <= 0) {
+			misses.increment();
+			return resolver.get();
+		}
+
+		FunctorKey key = new FunctorKey(kind, name, options);
+		Object functor;
+		synchronized (functors) {
+			functor = functors.get(key);
+		}
+
+		if (null != functor) {
+			hits.increment();
+			@SuppressWarnings("unchecked")
+			F result = (F) functor;
+			return result;
+		}
+
+		misses.increment();
+		F resolved = resolver.get();
+		if (null != resolved) {
+			synchronized (functors) {
+				functors.put(key.snapshot(), resolved);
+			}
+		}
+		return resolved;
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	public void setCapacity(int capacity) {
+		synchronized (functors) {
+			this.capacity = capacity;
+			Iterator<FunctorKey> eldest = functors.keySet().iterator();
+			while (functors.size() > Math.max(capacity, 0) && eldest.hasNext()) {
+				eldest.next();
+				eldest.remove();
+			}
+		}
+	}
+
+	public int size() {
+		synchronized (functors) {
+			return functors.size();
+		}
+	}
+
+	public void clear() {
+		synchronized (functors) {
+			functors.clear();
+		}
+	}
+
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	private static class FunctorKey {
+
+		private final String kind;
+
+		private final String name;
+
+		private final Object options;
+
+		private final int hash;
+
+		private FunctorKey(String kind, String name, Object options) {
+			this.kind = kind;
+			this.name = name;
+			this.options = options;
+			this.hash = (kind.hashCode() * 31 + Objects.hashCode(name)) * 31 
+					+ Objects.hashCode(options);
+		}
+
+		/**
+		 * The key to keep, over a copy of the options; lookups compare the live options with it.
+		 */
+		private FunctorKey snapshot() {
+			Object copied = copy(options);
+			return copied != options ? new FunctorKey(kind, name, copied) : this;
+		}
+
+		private static Object copy(Object options) {
+			if (options instanceof Map) {
+				Map<Object, Object> copied = new HashMap<>();
+				((Map<?, ?>) options).forEach((k, v) -> copied.put(copy(k), copy(v)));
+				return copied;
+			}
+
+			if (options instanceof Set) {
+				Set<Object> copied = new HashSet<>();
+				((Set<?>) options).forEach(v -> copied.add(copy(v)));
+				return copied;
+			}
+
+			if (options instanceof List) {
+				List<Object> copied = new ArrayList<>();
+				((List<?>) options).forEach(v -> copied.add(copy(v)));
+				return copied;
+			}
+
+			return options;
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof FunctorKey)) {
+				return false;
+			}
+
+			FunctorKey other = (FunctorKey) obj;
+			return hash == other.hash && kind.equals(other.kind) && Objects.equals(name, other.name)
+					&& Objects.equals(options, other.options);
+		}
+
+	}
+
+}
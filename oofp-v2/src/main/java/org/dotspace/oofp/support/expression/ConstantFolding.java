@@ -0,0 +1,77 @@
+package org.dotspace.oofp.support.expression;
+
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelNode;
+import org.springframework.expression.spel.ast.Elvis;
+import org.springframework.expression.spel.ast.InlineList;
+import org.springframework.expression.spel.ast.InlineMap;
+import org.springframework.expression.spel.ast.Literal;
+import org.springframework.expression.spel.ast.OpAnd;
+import org.springframework.expression.spel.ast.OpDivide;
+import org.springframework.expression.spel.ast.OpEQ;
+import org.springframework.expression.spel.ast.OpGE;
+import org.springframework.expression.spel.ast.OpGT;
+import org.springframework.expression.spel.ast.OpLE;
+import org.springframework.expression.spel.ast.OpLT;
+import org.springframework.expression.spel.ast.OpMinus;
+import org.springframework.expression.spel.ast.OpModulus;
+import org.springframework.expression.spel.ast.OpMultiply;
+import org.springframework.expression.spel.ast.OpNE;
+import org.springframework.expression.spel.ast.OpOr;
+import org.springframework.expression.spel.ast.OpPlus;
+import org.springframework.expression.spel.ast.OperatorBetween;
+import org.springframework.expression.spel.ast.OperatorMatches;
+import org.springframework.expression.spel.ast.OperatorNot;
+import org.springframework.expression.spel.ast.OperatorPower;
+import org.springframework.expression.spel.ast.Ternary;
+import org.springframework.expression.spel.standard.SpelExpression;
+
+import java.util.Set;
+
+/**
+ * 判斷表達式是否只由字面值與運算子組成（如 {@code 'yyyyMMdd'}、{@code 300L}、{@code {'a':1}}），
+ * 這類表達式與根物件、變數無關，可於解析時運算一次後重複使用其值；
+ * inline list/map 只在 SpEL 本身視為不可變常數時才折疊，避免共用的值被呼叫端修改。
+ */
+final class ConstantFolding {
+
+	private static final Set<Class<?>> OPERATORS = Set.of(
+			OpPlus.class, OpMinus.class, OpMultiply.class, OpDivide.class, OpModulus.class,
+			OperatorPower.class, OpAnd.class, OpOr.class, OperatorNot.class, OpEQ.class,
+			OpNE.class, OpGT.class, OpGE.class, OpLT.class, OpLE.class, OperatorBetween.class,
+			OperatorMatches.class, Ternary.class, Elvis.class);
+
+	private ConstantFolding() {
+	}
+
+	static boolean isConstant(Expression expression) {
+		return expression instanceof SpelExpression
+				&& isConstant(((SpelExpression) expression).getAST());
+	}
+
+	private static boolean isConstant(SpelNode node) {
+		if (node instanceof Literal) {
+			return true;
+		}
+
+		if (node instanceof InlineList) {
+			return ((InlineList) node).isConstant();
+		}
+
+		if (node instanceof InlineMap) {
+			return ((InlineMap) node).isConstant();
+		}
+
+		if (!OPERATORS.contains(node.getClass())) {
+			return false;
+		}
+
+		for (int i = 0; i < node.getChildCount(); i++) {
+			if (!isConstant(node.getChild(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
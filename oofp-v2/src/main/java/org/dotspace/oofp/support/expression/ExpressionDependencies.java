@@ -0,0 +1,237 @@
+package org.dotspace.oofp.support.expression;
+
+import org.springframework.expression.Expression;
+import org.springframework.expression.common.LiteralExpression;
+import org.springframework.expression.spel.SpelNode;
+import org.springframework.expression.spel.ast.CompoundExpression;
+import org.springframework.expression.spel.ast.FunctionReference;
+import org.springframework.expression.spel.ast.Indexer;
+import org.springframework.expression.spel.ast.MethodReference;
+import org.springframework.expression.spel.ast.Projection;
+import org.springframework.expression.spel.ast.PropertyOrFieldReference;
+import org.springframework.expression.spel.ast.Selection;
+import org.springframework.expression.spel.ast.VariableReference;
+import org.springframework.expression.spel.standard.SpelExpression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 不運算表達式，直接走訪其 AST 找出會讀取的根物件屬性與變數，供只載入或解碼需要的來源欄位。
+ * 屬性路徑記錄到第一個非單純屬性的步驟為止，例如 {@code detail.items.size()} 讀取 {@code detail.items}；
+ * selection/projection 內的屬性屬於集合元素，只記錄集合本身的路徑；
+ * {@code #root}、最外層的 {@code #this} 或直接對根物件呼叫方法，則視為讀取整個根物件。
+ */
+public class ExpressionDependencies {
+
+	public static final ExpressionDependencies NONE = new ExpressionDependencies(
+			Set.of(), Set.of(), false);
+
+	private static final SpelExpressionParser PARSER = new SpelExpressionParser();
+
+	private final Set<String> propertyPaths;
+
+	private final Set<String> variables;
+
+	private final boolean wholeRoot;
+
+	private ExpressionDependencies(Set<String> propertyPaths, Set<String> variables,
+			boolean wholeRoot) {
+		this.propertyPaths = Collections.unmodifiableSet(propertyPaths);
+		this.variables = Collections.unmodifiableSet(variables);
+		this.wholeRoot = wholeRoot;
+	}
+
+	public static ExpressionDependencies of(String expression) {
+		return null != expression ? of(PARSER.parseExpression(expression)) : NONE;
+	}
+
+	public static ExpressionDependencies of(Expression expression) {
+		if (null == expression || expression instanceof LiteralExpression) {
+			return NONE;
+		}
+
+		Walker walker = new Walker();
+		if (expression instanceof SpelExpression) {
+			walker.walk(((SpelExpression) expression).getAST(), true);
+		} else {
+			walker.wholeRoot = true;
+		}
+		return new ExpressionDependencies(walker.propertyPaths, walker.variables, walker.wholeRoot);
+	}
+
+	/**
+	 * @return 讀取的屬性路徑，{@code ?.} 一律寫作 {@code .}
+	 */
+	public Set<String> getPropertyPaths() {
+		return propertyPaths;
+	}
+
+	/**
+	 * @return 各屬性路徑的第一層屬性名稱
+	 */
+	public Set<String> getRootProperties() {
+		Set<String> names = new LinkedHashSet<>();
+		for (String path : propertyPaths) {
+			int dot = path.indexOf('.');
+			names.add(dot < 0 ? path : path.substring(0, dot));
+		}
+		return names;
+	}
+
+	/**
+	 * @return 參照的變數與函式名稱，不含 {@code #this} 與 {@code #root}
+	 */
+	public Set<String> getVariables() {
+		return variables;
+	}
+
+	public boolean isWholeRoot() {
+		return wholeRoot;
+	}
+
+	/**
+	 * @return 該屬性路徑本身、其上層或下層路徑是否可能被讀取：讀取 {@code detail.amount} 需要
+	 *         {@code detail} 與 {@code detail.amount}，但不需要 {@code detail.count}；讀取 {@code detail} 則三者皆需要
+	 */
+	public boolean reads(String propertyPath) {
+		if (wholeRoot) {
+			return true;
+		}
+
+		String path = propertyPath.replace("?.", ".");
+		for (String read : propertyPaths) {
+			if (read.equals(path) || read.startsWith(path + ".") || path.startsWith(read + ".")) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public ExpressionDependencies union(ExpressionDependencies other) {
+		Set<String> paths = new LinkedHashSet<>(propertyPaths);
+		paths.addAll(other.propertyPaths);
+		Set<String> names = new LinkedHashSet<>(variables);
+		names.addAll(other.variables);
+		return new ExpressionDependencies(paths, names, wholeRoot || other.wholeRoot);
+	}
+
+	public static ExpressionDependencies union(Iterable<String> expressions) {
+		ExpressionDependencies dependencies = NONE;
+		for (String expression : expressions) {
+			dependencies = dependencies.union(of(expression));
+		}
+		return dependencies;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("properties %s, variables %s%s", propertyPaths, variables,
+				wholeRoot ? ", whole root" : "");
+	}
+
+	private static class Walker {
+
+		private final Set<String> propertyPaths = new LinkedHashSet<>();
+
+		private final Set<String> variables = new LinkedHashSet<>();
+
+		private boolean wholeRoot;
+
+		/**
+		 * @param atRoot 節點是否對根物件運算，而非對 selection/projection 的集合元素運算
+		 */
+		private void walk(SpelNode node, boolean atRoot) {
+			if (node instanceof CompoundExpression) {
+				walkCompound(node, atRoot);
+			} else if (node instanceof PropertyOrFieldReference) {
+				if (atRoot) {
+					propertyPaths.add(((PropertyOrFieldReference) node).getName());
+				}
+			} else if (node instanceof VariableReference) {
+				readVariable(node, atRoot);
+			} else if (node instanceof MethodReference || node instanceof Indexer
+					|| node instanceof Selection || node instanceof Projection) {
+				wholeRoot |= atRoot;
+				walkArguments(node, atRoot);
+			} else {
+				if (node instanceof FunctionReference) {
+					String function = node.toStringAST();
+					variables.add(function.substring(1, function.indexOf('(')));
+				}
+				walkArguments(node, atRoot);
+			}
+		}
+
+		private void walkCompound(SpelNode node, boolean atRoot) {
+			SpelNode first = node.getChild(0);
+			List<String> path = null;
+			if (first instanceof PropertyOrFieldReference && atRoot) {
+				path = new ArrayList<>();
+				path.add(((PropertyOrFieldReference) first).getName());
+			} else if (isRootReference(first, atRoot)) {
+				path = new ArrayList<>();
+			} else {
+				walk(first, atRoot);
+			}
+
+			for (int i = 1; i < node.getChildCount(); i++) {
+				SpelNode step = node.getChild(i);
+				if (null != path && step instanceof PropertyOrFieldReference) {
+					path.add(((PropertyOrFieldReference) step).getName());
+					continue;
+				}
+
+				readPath(path);
+				path = null;
+				walkArguments(step, atRoot);
+			}
+			readPath(path);
+		}
+
+		private void readPath(List<String> path) {
+			if (null == path) {
+				return;
+			}
+
+			if (path.isEmpty()) {
+				wholeRoot = true;
+			} else {
+				propertyPaths.add(String.join(".", path));
+			}
+		}
+
+		private boolean isRootReference(SpelNode node, boolean atRoot) {
+			if (!(node instanceof VariableReference)) {
+				return false;
+			}
+
+			String name = node.toStringAST();
+			return "#root".equals(name) || (atRoot && "#this".equals(name));
+		}
+
+		private void readVariable(SpelNode node, boolean atRoot) {
+			if (isRootReference(node, atRoot)) {
+				wholeRoot = true;
+			} else if (!"#this".equals(node.toStringAST())) {
+				variables.add(node.toStringAST().substring(1));
+			}
+		}
+
+		/**
+		 * 方法參數與索引對節點所在的範圍運算，selection/projection 的條件則對每個元素運算。
+		 */
+		private void walkArguments(SpelNode node, boolean atRoot) {
+			boolean elements = node instanceof Selection || node instanceof Projection;
+			for (int i = 0; i < node.getChildCount(); i++) {
+				walk(node.getChild(i), atRoot && !elements);
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,203 @@
+package org.dotspace.oofp.support.expression;
+
+import org.apache.commons.lang3.ClassUtils;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.expression.BeanFactoryResolver;
+import org.springframework.context.expression.MapAccessor;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.support.DataBindingPropertyAccessor;
+import org.springframework.expression.spel.support.SimpleEvaluationContext;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+public class ExpressionEvaluation {
+
+	private static final MapAccessor MAP_ACCESSOR = new MapAccessor();
+
+	private static final MapAccessor READ_ONLY_MAP_ACCESSOR = new MapAccessor(false);
+
+	private static final DataBindingPropertyAccessor READ_ONLY_PROPERTY_ACCESSOR =
+			DataBindingPropertyAccessor.forReadOnlyAccess();
+
+	private static final ParsedExpressionCache PARSED_EXPRESSIONS = new ParsedExpressionCache();
+
+	private static final Object NOT_CONSTANT = new Object();
+
+	private final ApplicationContext applicationContext;
+
+	private final Expression expression;
+
+	private final PropertyPathAccessor propertyPath;
+
+	private final ExpressionMetrics metrics;
+
+	private final boolean readOnly;
+
+	private final Object constant;
+
+	/**
+	 * 表達式字串經由共用的 {@link ParsedExpressionCache} 解析，相同字串只解析一次。
+	 */
+	public ExpressionEvaluation(ApplicationContext applicationContext, String expressionText) {
+		this(PARSED_EXPRESSIONS.parse(expressionText), ExpressionEvaluationOptions.builder()
+				.withApplicationContext(applicationContext)
+				.build());
+	}
+
+	ExpressionEvaluation(Expression expression, ExpressionEvaluationOptions options) {
+		this.applicationContext = options.getApplicationContext();
+		this.expression = expression;
+		this.propertyPath = options.getPropertyPath();
+		this.metrics = null != expression ? options.getMetrics() : null;
+		this.readOnly = options.isReadOnly();
+		this.constant = options.isFolded() ? options.getConstant() : NOT_CONSTANT;
+	}
+
+	public <T> T getValue(Class<T> resultClazz, Object root) {
+		return getValue(resultClazz, Map.of(), root);
+	}
+
+	public <T> T getValue(Class<T> resultClazz, Map<String, Object> variables, Object root) {
+		return measure(() -> {
+			Object value = readDirect(root);
+			if (isResultOf(resultClazz, value)) {
+				return cast(value);
+			}
+
+			return Optional.ofNullable(expression)
+					.map(e -> e.getValue(getContext(root, variables), resultClazz))
+					.orElse(null);
+		});
+	}
+
+	public <T> T getValueWithVariables(Map<String, Object> variables, Object root) {
+		return measure(() -> {
+			Object value = readDirect(root);
+			if (PropertyPathAccessor.UNREAD != value) {
+				return cast(value);
+			}
+
+			return evaluateValue(getContext(root, variables));
+		});
+	}
+
+	public <T> T getValueWithVariables(Map<String, Object> variables) {
+		if (NOT_CONSTANT != constant) {
+			return cast(constant);
+		}
+		return measure(() -> evaluateValue(getContext(null, variables)));
+	}
+
+	public <T> T getValue(Object root) {
+		return measure(() -> {
+			Object value = readDirect(root);
+			if (PropertyPathAccessor.UNREAD != value) {
+				return cast(value);
+			}
+
+			return evaluateValue(getContext(root, Map.of()));
+		});
+	}
+
+	public <T> T getValue() {
+		if (NOT_CONSTANT != constant) {
+			return cast(constant);
+		}
+		return measure(() -> evaluateValue(null));
+	}
+
+	public void setValue(Map<String, Object> variables, Object root, Object value) {
+		measure(() -> {
+			if (!writeProperty(root, value)) {
+				expression.setValue(getContext(root, variables), value);
+			}
+			return null;
+		});
+	}
+
+	public void setValue(Object root, Object value) {
+		setValue(Map.of(), root, value);
+	}
+
+	private boolean writeProperty(Object root, Object value) {
+		return null != propertyPath && !readOnly && propertyPath.write(root, value);
+	}
+
+	private <T> T measure(Supplier<T> evaluation) {
+		if (null == metrics || NOT_CONSTANT != constant) {
+			return evaluation.get();
+		}
+
+		long start = System.nanoTime();
+		boolean failed = true;
+		try {
+			T value = evaluation.get();
+			failed = false;
+			return value;
+		} finally {
+			metrics.recordEvaluations(expression.getExpressionString(), 1,
+					System.nanoTime() - start, failed);
+		}
+	}
+
+	private Object readDirect(Object root) {
+		if (NOT_CONSTANT != constant) {
+			return constant;
+		}
+		return null != propertyPath ? propertyPath.read(root) : PropertyPathAccessor.UNREAD;
+	}
+
+	private static boolean isResultOf(Class<?> resultClazz, Object value) {
+		if (PropertyPathAccessor.UNREAD == value) {
+			return false;
+		}
+		if (null == resultClazz) {
+			return true;
+		}
+		return null == value
+				? !resultClazz.isPrimitive()
+				: ClassUtils.primitiveToWrapper(resultClazz).isInstance(value);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T cast(Object value) {
+		return (T) value;
+	}
+
+	private EvaluationContext getContext(Object root, Map<String, Object> variables) {
+		EvaluationContext context = readOnly ? newReadOnlyContext(root) : newContext(root);
+		variables.forEach(context::setVariable);
+		return context;
+	}
+
+	private StandardEvaluationContext newContext(Object root) {
+		StandardEvaluationContext context = new StandardEvaluationContext(root);
+		context.addPropertyAccessor(MAP_ACCESSOR);
+		Optional.ofNullable(applicationContext)
+				.map(BeanFactoryResolver::new)
+				.ifPresent(context::setBeanResolver);
+		return context;
+	}
+
+	private SimpleEvaluationContext newReadOnlyContext(Object root) {
+		return SimpleEvaluationContext
+				.forPropertyAccessors(READ_ONLY_MAP_ACCESSOR, READ_ONLY_PROPERTY_ACCESSOR)
+				.withInstanceMethods()
+				.withAssignmentDisabled()
+				.withRootObject(root)
+				.build();
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> T evaluateValue(EvaluationContext context) {
+		return Optional.ofNullable(expression)
+				.map(e -> null != context ? e.getValue(context) : e.getValue())
+				.map(v -> (T) v)
+				.orElse(null);
+	}
+
+}
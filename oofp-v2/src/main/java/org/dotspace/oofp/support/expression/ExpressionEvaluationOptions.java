@@ -0,0 +1,41 @@
+package org.dotspace.oofp.support.expression;
+
+import lombok.Builder;
+import lombok.Getter;
+import org.springframework.context.ApplicationContext;
+
+/**
+ * {@link ExpressionEvaluations} 解析時交給 {@link ExpressionEvaluation} 的運算設定。
+ */
+@Getter
+@Builder(setterPrefix = "with")
+class ExpressionEvaluationOptions {
+
+	private ApplicationContext applicationContext;
+
+	/**
+	 * 給定時，單純屬性路徑直接以 getter/setter 存取，無法處理者再交由 SpEL 運算；
+	 * 屬性路徑不會參照變數，直接存取時忽略 variables。
+	 */
+	private PropertyPathAccessor propertyPath;
+
+	/**
+	 * 給定時，每次讀寫都計入該表達式的運算次數、耗時與失敗次數。
+	 */
+	private ExpressionMetrics metrics;
+
+	/**
+	 * 為 true 時改用只讀取 Map 鍵、公開屬性並呼叫實例方法的
+	 * {@link org.springframework.expression.spel.support.SimpleEvaluationContext}，
+	 * 不支援 bean 參照、型別參照、建構子與指派，寫入也一律交由該 context 拒絕。
+	 */
+	private boolean readOnly;
+
+	/**
+	 * 為 true 時 constant 即解析時已折疊出的常數值，讀取時直接回傳而不再運算，也不計入 metrics。
+	 */
+	private boolean folded;
+
+	private Object constant;
+
+}
@@ -4,14 +4,150 @@ import lombok.NonNull;
 import org.springframework.beans.BeansException;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
+import org.springframework.expression.EvaluationException;
+import org.springframework.expression.Expression;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class ExpressionEvaluations implements ApplicationContextAware {
 
+	private static final Object NOT_CONSTANT = new Object();
+
 	private ApplicationContext applicationContext;
 
+	private ParsedExpressionCache parsedExpressions = new ParsedExpressionCache();
+
+	private final ConcurrentMap<String, PropertyPathAccessor> propertyPaths = new ConcurrentHashMap<>();
+
+	private boolean directPropertyAccess = true;
+
+	private final Map<Expression, Object> constants = Collections.synchronizedMap(new WeakHashMap<>());
+
+	private boolean constantFolding = true;
+
+	private ExpressionMetrics metrics;
+
+	private boolean readOnly;
+
 	public ExpressionEvaluation parse(String expression) {
 
-        return new ExpressionEvaluation(applicationContext, expression);
+		ExpressionMetrics evaluationMetrics = metrics;
+		if (null != evaluationMetrics && null != expression) {
+			evaluationMetrics.recordParse(expression);
+		}
+
+		Expression parsed = parsedExpressions.parse(expression);
+		PropertyPathAccessor propertyPath = directPropertyAccess ? getPropertyPath(expression) : null;
+		Object constant = constantFolding && null == propertyPath && null != parsed
+				? getConstant(parsed)
+				: NOT_CONSTANT;
+		return new ExpressionEvaluation(parsed, ExpressionEvaluationOptions.builder()
+				.withApplicationContext(applicationContext)
+				.withPropertyPath(propertyPath)
+				.withMetrics(evaluationMetrics)
+				.withReadOnly(readOnly)
+				.withFolded(NOT_CONSTANT != constant)
+				.withConstant(constant)
+				.build());
+	}
+
+	private Object getConstant(Expression parsed) {
+		Object constant = constants.get(parsed);
+		if (null == constant && !constants.containsKey(parsed)) {
+			constant = fold(parsed);
+			constants.put(parsed, constant);
+		}
+		return constant;
+	}
+
+	private Object fold(Expression parsed) {
+		if (!ConstantFolding.isConstant(parsed)) {
+			return NOT_CONSTANT;
+		}
+
+		try {
+			return parsed.getValue();
+		} catch (EvaluationException | ArithmeticException e) {
+			return NOT_CONSTANT;
+		}
+	}
+
+	private PropertyPathAccessor getPropertyPath(String expression) {
+		if (null == expression) {
+			return null;
+		}
+
+		PropertyPathAccessor accessor = propertyPaths.get(expression);
+		if (null == accessor) {
+			accessor = PropertyPathAccessor.of(expression);
+			if (null != accessor) {
+				PropertyPathAccessor existing = propertyPaths.putIfAbsent(expression, accessor);
+				accessor = null != existing ? existing : accessor;
+			}
+		}
+		return accessor;
+	}
+
+	public ParsedExpressionCache getParsedExpressions() {
+		return parsedExpressions;
+	}
+
+	public void setParsedExpressions(@NonNull ParsedExpressionCache parsedExpressions) {
+		this.parsedExpressions = parsedExpressions;
+	}
+
+	public void setParsedExpressionCacheSize(int parsedExpressionCacheSize) {
+		parsedExpressions.setCapacity(parsedExpressionCacheSize);
+	}
+
+	public boolean isDirectPropertyAccess() {
+		return directPropertyAccess;
+	}
+
+	/**
+	 * 開啟時單純屬性路徑與 null-safe 路徑改以快取的 getter/setter 直接存取，其餘仍由 SpEL 運算。
+	 */
+	public void setDirectPropertyAccess(boolean directPropertyAccess) {
+		this.directPropertyAccess = directPropertyAccess;
+	}
+
+	public boolean isConstantFolding() {
+		return constantFolding;
+	}
+
+	/**
+	 * 開啟時只由字面值與運算子組成的表達式於解析後運算一次，之後直接回傳該值；
+	 * 運算失敗者不折疊，照舊於每次運算時拋出例外。
+	 */
+	public void setConstantFolding(boolean constantFolding) {
+		this.constantFolding = constantFolding;
+	}
+
+	public boolean isReadOnly() {
+		return readOnly;
+	}
+
+	/**
+	 * 開啟後以 {@link org.springframework.expression.spel.support.SimpleEvaluationContext} 運算，
+	 * 只能讀取 Map 鍵與公開屬性、呼叫實例方法，適用於外部提供的規則檔。
+	 */
+	public void setReadOnly(boolean readOnly) {
+		this.readOnly = readOnly;
+	}
+
+	public ExpressionMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * 設定後解析出的表達式會將解析、運算、失敗次數與耗時計入 metrics；為 null 時不計量。
+	 */
+	public void setMetrics(ExpressionMetrics metrics) {
+		this.metrics = metrics;
 	}
 
 	@Override
@@ -0,0 +1,80 @@
+package org.dotspace.oofp.support.expression;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * 以表達式字串為鍵的 {@link ExpressionStatistics} 登錄表，設定於
+ * {@link ExpressionEvaluations#setMetrics(ExpressionMetrics)} 後由各次運算累計。
+ * 「最慢」以運算耗時總和排序，執行百萬次的便宜表達式會排在只執行一次的慢表達式之前。
+ */
+@Slf4j
+public class ExpressionMetrics {
+
+	private final ConcurrentMap<String, ExpressionStatistics> statistics =
+			new ConcurrentHashMap<>();
+
+	void recordParse(String expression) {
+		getOrCreate(expression).recordParse();
+	}
+
+	void recordEvaluations(String expression, int count, long nanos, boolean failed) {
+		getOrCreate(expression).recordEvaluations(count, nanos, failed);
+	}
+
+	private ExpressionStatistics getOrCreate(String expression) {
+		ExpressionStatistics stats = statistics.get(expression);
+		return null != stats ? stats : statistics.computeIfAbsent(expression, ExpressionStatistics::new);
+	}
+
+	public ExpressionStatistics getStatistics(String expression) {
+		return statistics.get(expression);
+	}
+
+	public List<ExpressionStatistics> getAllStatistics() {
+		return new ArrayList<>(statistics.values());
+	}
+
+	public List<ExpressionStatistics> getSlowestExpressions(int top) {
+		return statistics.values().stream()
+				.sorted(Comparator.comparingLong(ExpressionStatistics::getTotalNanos).reversed())
+				.limit(top)
+				.collect(Collectors.toList());
+	}
+
+	public String report(int top) {
+		return getSlowestExpressions(top).stream()
+				.map(ExpressionStatistics::toString)
+				.collect(Collectors.joining(System.lineSeparator(),
+						String.format("slowest %d of %d expressions%n", top, statistics.size()), ""));
+	}
+
+	/**
+	 * 每個週期將 {@link #report(int)} 交給 reporter，直到取消回傳的 future。
+	 */
+	public ScheduledFuture<?> scheduleReport(ScheduledExecutorService scheduler, long period,
+			TimeUnit unit, int top, Consumer<String> reporter) {
+		return scheduler.scheduleAtFixedRate(
+				() -> reporter.accept(report(top)), period, period, unit);
+	}
+
+	public ScheduledFuture<?> scheduleReport(ScheduledExecutorService scheduler, long period,
+			TimeUnit unit, int top) {
+		return scheduleReport(scheduler, period, unit, top, log::info);
+	}
+
+	public void clear() {
+		statistics.clear();
+	}
+
+}
@@ -0,0 +1,125 @@
+package org.dotspace.oofp.support.expression;
+
+import org.springframework.expression.Expression;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 以表達式字串為鍵、LRU 淘汰的 SpEL 解析結果快取；capacity 小於等於 0 時不快取。
+ */
+public class ParsedExpressionCache {
+
+	public static final int DEFAULT_CAPACITY = 1024;
+
+	private final ExpressionParser parser;
+
+	private final Map<String, Expression> expressions;
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	private final LongAdder evictions = new LongAdder();
+
+	private volatile int capacity;
+
+	public ParsedExpressionCache() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	public ParsedExpressionCache(int capacity) {
+		this(new SpelExpressionParser(), capacity);
+	}
+
+	public ParsedExpressionCache(ExpressionParser parser, int capacity) {
+		this.parser = parser;
+		this.capacity = capacity;
+		this.expressions = new LinkedHashMap<>(16, 0.75f, true) {
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Expression> eldest) {
+				boolean evicting = size() > ParsedExpressionCache.this.capacity;
+				if (evicting) {
+					evictions.increment();
+				}
+				return evicting;
+			}
+
+		};
+	}
+
+	public Expression parse(String expressionText) {
+		if (null == expressionText) {
+			return null;
+		}
+
+		if (capacity <= 0) {
+			misses.increment();
+			return parser.parseExpression(expressionText);
+		}
+
+		Expression expression;
+		synchronized (expressions) {
+			expression = expressions.get(expressionText);
+		}
+
+		if (null != expression) {
+			hits.increment();
+			return expression;
+		}
+
+		misses.increment();
+		Expression parsed = parser.parseExpression(expressionText);
+		synchronized (expressions) {
+			expression = expressions.putIfAbsent(expressionText, parsed);
+		}
+
+		return null != expression ? expression : parsed;
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	public void setCapacity(int capacity) {
+		synchronized (expressions) {
+			this.capacity = capacity;
+			Iterator<String> eldest = expressions.keySet().iterator();
+			while (expressions.size() > Math.max(capacity, 0) && eldest.hasNext()) {
+				eldest.next();
+				eldest.remove();
+				evictions.increment();
+			}
+		}
+	}
+
+	public int size() {
+		synchronized (expressions) {
+			return expressions.size();
+		}
+	}
+
+	public void clear() {
+		synchronized (expressions) {
+			expressions.clear();
+		}
+	}
+
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	public long getEvictionCount() {
+		return evictions.sum();
+	}
+
+}
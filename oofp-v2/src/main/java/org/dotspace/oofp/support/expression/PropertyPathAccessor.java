@@ -0,0 +1,266 @@
+package org.dotspace.oofp.support.expression;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang3.ClassUtils;
+import org.springframework.beans.BeanUtils;
+import org.springframework.expression.spel.SpelEvaluationException;
+import org.springframework.expression.spel.SpelMessage;
+
+/**
+ * 單純屬性路徑（{@code name}、{@code detail.amount}）或 null-safe 路徑（{@code detail?.amount}）的存取器，
+ * 每一步依當下物件類別解析一次 getter/setter 的 {@link MethodHandle} 後直接呼叫，遇到 Map 則如 MapAccessor 般存取其鍵；
+ * 根物件為 null、一般步驟遇到 null、找不到鍵或存取方法、需轉型的值，一律交回 SpEL 處理。
+ */
+class PropertyPathAccessor {
+
+	static final Object UNREAD = new Object();
+
+	private static final Set<String> KEYWORDS = Set.of(
+			"true", "false", "null", "and", "or", "not", "div", "mod", "gt", "lt", "le", "ge",
+			"eq", "ne", "new", "instanceof", "matches", "between");
+
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+	private static final MethodType SETTER_TYPE = MethodType.methodType(
+			void.class, Object.class, Object.class);
+
+	private final String path;
+
+	private final String[] names;
+
+	private final boolean[] nullSafe;
+
+	private final PropertyStep[] steps;
+
+	private PropertyPathAccessor(String path, String[] names, boolean[] nullSafe) {
+		this.path = path;
+		this.names = names;
+		this.nullSafe = nullSafe;
+		this.steps = new PropertyStep[names.length];
+		for (int i = 0; i < names.length; i++) {
+			steps[i] = new PropertyStep(names[i]);
+		}
+	}
+
+	/**
+	 * @return 路徑的存取器；表達式不是單純屬性路徑時為 null
+	 */
+	static PropertyPathAccessor of(String expression) {
+		if (null == expression) {
+			return null;
+		}
+
+		List<String> names = new ArrayList<>();
+		List<Boolean> nullSafe = new ArrayList<>();
+		int start = 0;
+		boolean safe = false;
+		for (int i = 0; i <= expression.length(); i++) {
+			char c = i < expression.length() ? expression.charAt(i) : '.';
+			if ('.' != c && '?' != c) {
+				if (!isNameChar(c, i == start)) {
+					return null;
+				}
+				continue;
+			}
+
+			String name = expression.substring(start, i);
+			if (name.isEmpty() || KEYWORDS.contains(name.toLowerCase())) {
+				return null;
+			}
+			names.add(name);
+			nullSafe.add(safe);
+
+			safe = '?' == c;
+			if (safe && (i + 1 >= expression.length() || '.' != expression.charAt(++i))) {
+				return null;
+			}
+			start = i + 1;
+		}
+
+		boolean[] safeSteps = new boolean[nullSafe.size()];
+		for (int i = 0; i < safeSteps.length; i++) {
+			safeSteps[i] = nullSafe.get(i);
+		}
+		return new PropertyPathAccessor(expression, names.toArray(new String[0]), safeSteps);
+	}
+
+	private static boolean isNameChar(char c, boolean first) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || '_' == c || '$' == c
+				|| (!first && c >= '0' && c <= '9');
+	}
+
+	String getPath() {
+		return path;
+	}
+
+	Object read(Object root) {
+		if (null == root) {
+			return UNREAD;
+		}
+
+		Object target = root;
+		for (int i = 0; i < steps.length; i++) {
+			if (null == target) {
+				return nullSafe[i] ? null : UNREAD;
+			}
+
+			target = read(i, target);
+			if (UNREAD == target) {
+				return UNREAD;
+			}
+		}
+		return target;
+	}
+
+	private Object read(int step, Object target) {
+		Property property = steps[step].get(target.getClass());
+		if (property.mapKey) {
+			Map<?, ?> map = (Map<?, ?>) target;
+			Object value = map.get(names[step]);
+			return null != value || map.containsKey(names[step]) ? value : UNREAD;
+		}
+
+		if (null == property.getter) {
+			return UNREAD;
+		}
+
+		try {
+			return (Object) property.getter.invokeExact(target);
+		} catch (Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new SpelEvaluationException(e, SpelMessage.EXCEPTION_DURING_PROPERTY_READ,
+					names[step], e.getMessage());
+		}
+	}
+
+	boolean write(Object root, Object value) {
+		int last = steps.length - 1;
+		Object target = root;
+		for (int i = 0; i < last && null != target; i++) {
+			target = read(i, target);
+			if (UNREAD == target) {
+				return false;
+			}
+		}
+
+		if (null == target) {
+			return false;
+		}
+
+		Property property = steps[last].get(target.getClass());
+		if (property.mapKey) {
+			return writeKey(target, names[last], value);
+		}
+
+		if (null == property.setter || (null == value
+				? property.valueClazz.isPrimitive()
+				: !ClassUtils.primitiveToWrapper(property.valueClazz).isInstance(value))) {
+			return false;
+		}
+
+		try {
+			property.setter.invokeExact(target, value);
+			return true;
+		} catch (Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new SpelEvaluationException(e, SpelMessage.EXCEPTION_DURING_PROPERTY_WRITE,
+					names[last], e.getMessage());
+		}
+	}
+
+	private static boolean writeKey(Object target, String key, Object value) {
+		try {
+			@SuppressWarnings("unchecked")
+			Map<Object, Object> map = (Map<Object, Object>) target;
+			map.put(key, value);
+			return true;
+		} catch (RuntimeException e) {
+			throw new SpelEvaluationException(e, SpelMessage.EXCEPTION_DURING_PROPERTY_WRITE,
+					key, e.getMessage());
+		}
+	}
+
+	private static class PropertyStep extends ClassValue<Property> {
+
+		private final String name;
+
+		private PropertyStep(String name) {
+			this.name = name;
+		}
+
+		@Override
+		protected Property computeValue(Class<?> type) {
+			if (Map.class.isAssignableFrom(type)) {
+				return Property.MAP_KEY;
+			}
+
+			if (Class.class == type || ClassLoader.class.isAssignableFrom(type)) {
+				return Property.UNRESOLVED;
+			}
+
+			try {
+				PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(type, name);
+				if (null == descriptor) {
+					return Property.UNRESOLVED;
+				}
+
+				MethodHandles.Lookup lookup = MethodHandles.lookup();
+				Method readMethod = descriptor.getReadMethod();
+				if (null != readMethod && Object.class == readMethod.getDeclaringClass()) {
+					return Property.UNRESOLVED;
+				}
+
+				Method writeMethod = descriptor.getWriteMethod();
+				return new Property(
+						null != readMethod ? unreflect(lookup, readMethod).asType(GETTER_TYPE) : null,
+						null != writeMethod ? unreflect(lookup, writeMethod).asType(SETTER_TYPE) : null,
+						descriptor.getPropertyType(), false);
+			} catch (IllegalAccessException | RuntimeException e) {
+				return Property.UNRESOLVED;
+			}
+		}
+
+		private static MethodHandle unreflect(MethodHandles.Lookup lookup, Method method)
+				throws IllegalAccessException {
+			method.setAccessible(true);
+			return lookup.unreflect(method);
+		}
+
+	}
+
+	private static class Property {
+
+		private static final Property UNRESOLVED = new Property(null, null, null, false);
+
+		private static final Property MAP_KEY = new Property(null, null, null, true);
+
+		private final MethodHandle getter;
+
+		private final MethodHandle setter;
+
+		private final Class<?> valueClazz;
+
+		private final boolean mapKey;
+
+		private Property(MethodHandle getter, MethodHandle setter, Class<?> valueClazz,
+				boolean mapKey) {
+			this.getter = getter;
+			this.setter = setter;
+			this.valueClazz = valueClazz;
+			this.mapKey = mapKey;
+		}
+
+	}
+
+}
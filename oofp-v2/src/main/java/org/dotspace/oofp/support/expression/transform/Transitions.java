@@ -1,5 +1,7 @@
 package org.dotspace.oofp.support.expression.transform;
 
+import org.dotspace.oofp.support.expression.ExpressionDependencies;
+
 import java.util.*;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -53,6 +55,16 @@ public class Transitions {
         return mappings.stream().map(TransformMapping::readerExpr).collect(Collectors.toSet());
     }
 
+    /**
+     * Returns the source properties and variables read by all reader expressions,
+     * so that only those fields need to be selected or loaded from the source.
+     *
+     * @return the dependencies of all reader expressions
+     */
+    public ExpressionDependencies sourceDependencies() {
+        return ExpressionDependencies.union(allSourceExpressions());
+    }
+
     public Set<String> allTargetFields() {
         return mappings.stream().map(TransformMapping::writerExpr).collect(Collectors.toSet());
     }
@@ -0,0 +1,93 @@
+package org.dotspace.oofp.support.expression;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConstantFoldingTest {
+
+    private final SpelExpressionParser parser = new SpelExpressionParser();
+
+    private ExpressionEvaluations expressionEvaluations;
+
+    private ExpressionMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        expressionEvaluations = new ExpressionEvaluations();
+        metrics = new ExpressionMetrics();
+        expressionEvaluations.setMetrics(metrics);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"'yyyyMMdd'", "300L", "-1", "{'a':1}", "{1,2}", "1 + 2 * 3",
+            "true and !false", "null", "'a' matches '[a-z]'", "1 > 2 ? 'x' : 'y'"})
+    void isConstant_WithLiteralsAndOperators_ReturnsTrue(String expression) {
+        assertTrue(ConstantFolding.isConstant(parser.parseExpression(expression)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"name", "#value", "{1 + 1}", "{'a':#value}", "'a'.length()",
+            "T(java.lang.Math).max(1, 2)", "new java.util.ArrayList()", "@bean"})
+    void isConstant_WithReferences_ReturnsFalse(String expression) {
+        assertFalse(ConstantFolding.isConstant(parser.parseExpression(expression)));
+    }
+
+    @Test
+    void parse_WithConstant_ReturnsValueWithoutEvaluation() {
+        // Arrange
+        ExpressionEvaluation evaluation = expressionEvaluations.parse("1 + 2 * 3");
+
+        // Act
+        Object value = evaluation.getValue(new Object());
+        Object again = expressionEvaluations.parse("1 + 2 * 3").getValueWithVariables(Map.of());
+
+        // Assert
+        assertEquals(7, value);
+        assertEquals(7, again);
+        assertEquals(0, metrics.getStatistics("1 + 2 * 3").getEvaluationCount());
+        assertEquals("7", evaluation.getValue(String.class, null));
+    }
+
+    @Test
+    void parse_WithInlineMap_SharesUnmodifiableValue() {
+        Map<String, Object> options = expressionEvaluations.parse("{'a':1}").getValue();
+
+        assertEquals(Map.of("a", 1), options);
+        assertThrows(UnsupportedOperationException.class, () -> options.put("b", 2));
+    }
+
+    @Test
+    void parse_WithFailingConstant_ThrowsOnEveryEvaluation() {
+        ExpressionEvaluation evaluation = expressionEvaluations.parse("1 / 0");
+
+        assertThrows(ArithmeticException.class, evaluation::getValue);
+        assertThrows(ArithmeticException.class, evaluation::getValue);
+        assertEquals(2, metrics.getStatistics("1 / 0").getExceptionCount());
+    }
+
+    @Test
+    void parse_WithConstantFoldingOff_EvaluatesEveryTime() {
+        // Arrange
+        expressionEvaluations.setConstantFolding(false);
+        ExpressionEvaluation evaluation = expressionEvaluations.parse("{1,2}");
+
+        // Act
+        List<Integer> first = evaluation.getValue();
+        List<Integer> second = evaluation.getValue();
+
+        // Assert
+        assertFalse(expressionEvaluations.isConstantFolding());
+        assertEquals(List.of(1, 2), first);
+        assertEquals(first, second);
+        assertEquals(2, metrics.getStatistics("{1,2}").getEvaluationCount());
+    }
+
+}
@@ -0,0 +1,82 @@
+package org.dotspace.oofp.support.expression;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpressionDependenciesTest {
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "name                                   | name",
+            "detail?.amount + 1                     | detail.amount",
+            "detail.items.size() > 0                | detail.items",
+            "items.?[amount > 0].![code]            | items",
+            "#this.name                             | name",
+            "T(java.lang.Math).max(a, b.c)          | a,b.c",
+            "items[0].name                          | items",
+            "a ?: b                                 | a,b"
+    })
+    void of_WithPropertyReferences_ReturnsPaths(String expression, String paths) {
+        ExpressionDependencies dependencies = ExpressionDependencies.of(expression);
+
+        assertEquals(List.of(paths.split(",")), List.copyOf(dependencies.getPropertyPaths()));
+        assertFalse(dependencies.isWholeRoot());
+    }
+
+    @Test
+    void of_WithVariablesAndFunctions_ReturnsNames() {
+        // Arrange
+        String expression = "items.?[amount > #min && #this.code == #root.code].size() + #fmt(date)";
+
+        // Act
+        ExpressionDependencies dependencies = ExpressionDependencies.of(expression);
+
+        // Assert
+        assertEquals(Set.of("items", "code", "date"), dependencies.getPropertyPaths());
+        assertEquals(Set.of("min", "fmt"), dependencies.getVariables());
+    }
+
+    @Test
+    void of_WithRootHandedOver_ReadsWholeRoot() {
+        assertTrue(ExpressionDependencies.of("#root").isWholeRoot());
+        assertTrue(ExpressionDependencies.of("toString()").isWholeRoot());
+        assertTrue(ExpressionDependencies.of("#root.size()").isWholeRoot());
+        assertTrue(ExpressionDependencies.of("#root").reads("anything"));
+    }
+
+    @Test
+    void of_WithLiteralOrNull_ReadsNothing() {
+        assertSame(ExpressionDependencies.NONE, ExpressionDependencies.of((String) null));
+        assertTrue(ExpressionDependencies.of("'abc'").getPropertyPaths().isEmpty());
+    }
+
+    @Test
+    void reads_WithPathsAboveAndBelow_MatchesBoth() {
+        // Arrange
+        ExpressionDependencies dependencies = ExpressionDependencies.of("detail.amount");
+
+        // Act & Assert
+        assertTrue(dependencies.reads("detail"));
+        assertTrue(dependencies.reads("detail?.amount.scale"));
+        assertFalse(dependencies.reads("detail.count"));
+        assertFalse(dependencies.reads("name"));
+        assertEquals(Set.of("detail"), dependencies.getRootProperties());
+    }
+
+    @Test
+    void union_CombinesPathsVariablesAndWholeRoot() {
+        ExpressionDependencies dependencies = ExpressionDependencies.union(List.of("name", "#x + age"))
+                .union(ExpressionDependencies.of("#root"));
+
+        assertEquals(Set.of("name", "age"), dependencies.getPropertyPaths());
+        assertEquals(Set.of("x"), dependencies.getVariables());
+        assertTrue(dependencies.isWholeRoot());
+    }
+
+}
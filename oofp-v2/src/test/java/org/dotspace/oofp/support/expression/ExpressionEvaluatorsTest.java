@@ -175,7 +175,7 @@ class ExpressionEvaluatorsTest {
         TestObject obj = new TestObject();
 
         assertDoesNotThrow(() -> writer.accept(obj, "value"));
-        verify(expressionEvaluation).setValue(any(Map.class), eq(obj), eq("value"));
+        verify(expressionEvaluation).setValue(anyMap(), eq(obj), eq("value"));
     }
 
     @Test
@@ -0,0 +1,116 @@
+package org.dotspace.oofp.support.expression;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpressionMetricsTest {
+
+    private ExpressionEvaluations expressionEvaluations;
+
+    private ExpressionMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        expressionEvaluations = new ExpressionEvaluations();
+        metrics = new ExpressionMetrics();
+        expressionEvaluations.setMetrics(metrics);
+    }
+
+    @Test
+    void parse_WithMetrics_CountsParsesAndEvaluations() {
+        // Arrange
+        ExpressionEvaluation evaluation = expressionEvaluations.parse("#value * 2");
+        expressionEvaluations.parse("#value * 2");
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            evaluation.getValueWithVariables(Map.of("value", i));
+        }
+
+        // Assert
+        ExpressionStatistics statistics = metrics.getStatistics("#value * 2");
+        assertEquals(2, statistics.getParseCount());
+        assertEquals(3, statistics.getEvaluationCount());
+        assertEquals(0, statistics.getExceptionCount());
+        assertTrue(statistics.getMaxNanos() > 0);
+        assertTrue(statistics.getTotalNanos() >= statistics.getMaxNanos());
+    }
+
+    @Test
+    void getValue_WithFailure_CountsException() {
+        ExpressionEvaluation evaluation = expressionEvaluations.parse("#this.missing()");
+
+        assertThrows(RuntimeException.class, () -> evaluation.getValue("text"));
+
+        ExpressionStatistics statistics = metrics.getStatistics("#this.missing()");
+        assertEquals(1, statistics.getEvaluationCount());
+        assertEquals(1, statistics.getExceptionCount());
+    }
+
+    @Test
+    void getValue_WithPropertyPath_CountsDirectReads() {
+        expressionEvaluations.parse("bytes").getValue("abc");
+
+        assertEquals(1, metrics.getStatistics("bytes").getEvaluationCount());
+    }
+
+    @Test
+    void parse_WithoutMetrics_RecordsNothing() {
+        expressionEvaluations.setMetrics(null);
+
+        expressionEvaluations.parse("1 + 1").getValue();
+
+        assertTrue(metrics.getAllStatistics().isEmpty());
+    }
+
+    @Test
+    void getSlowestExpressions_OrdersByTotalTime() {
+        // Arrange
+        ExpressionEvaluation fast = expressionEvaluations.parse("1");
+        ExpressionEvaluation slow = expressionEvaluations.parse(
+                "T(java.lang.Thread).sleep(5L) ?: 2");
+        fast.getValue();
+        slow.getValue();
+
+        // Act
+        List<ExpressionStatistics> slowest = metrics.getSlowestExpressions(1);
+
+        // Assert
+        assertEquals(1, slowest.size());
+        assertEquals("T(java.lang.Thread).sleep(5L) ?: 2", slowest.get(0).getExpression());
+        assertTrue(metrics.report(2).contains("slowest 2 of 2 expressions"));
+    }
+
+    @Test
+    void scheduleReport_HandsReportToReporter() {
+        // Arrange
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        AtomicReference<String> report = new AtomicReference<>();
+        expressionEvaluations.parse("'x'").getValue();
+
+        // Act
+        ScheduledFuture<?> future = metrics.scheduleReport(
+                scheduler, 10, TimeUnit.MILLISECONDS, 5, report::set);
+
+        // Assert
+        try {
+            await().atMost(2, TimeUnit.SECONDS).until(() -> null != report.get());
+            assertTrue(report.get().contains("'x'"));
+        } finally {
+            future.cancel(true);
+            scheduler.shutdownNow();
+        }
+    }
+
+}
@@ -0,0 +1,81 @@
+package org.dotspace.oofp.support.expression;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.expression.Expression;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParsedExpressionCacheTest {
+
+    @Test
+    void parse_SameText_ReturnsCachedExpression() {
+        ParsedExpressionCache cache = new ParsedExpressionCache();
+
+        Expression first = cache.parse("1 + 2");
+        Expression second = cache.parse("1 + 2");
+
+        assertSame(first, second);
+        assertEquals(1L, cache.getMissCount());
+        assertEquals(1L, cache.getHitCount());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void parse_NullText_ReturnsNullWithoutCounting() {
+        ParsedExpressionCache cache = new ParsedExpressionCache();
+
+        assertNull(cache.parse(null));
+        assertEquals(0L, cache.getMissCount());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void parse_OverCapacity_EvictsLeastRecentlyUsed() {
+        ParsedExpressionCache cache = new ParsedExpressionCache(2);
+
+        Expression a = cache.parse("'a'");
+        cache.parse("'b'");
+        cache.parse("'a'");
+        cache.parse("'c'");
+
+        assertEquals(2, cache.size());
+        assertEquals(1L, cache.getEvictionCount());
+        assertSame(a, cache.parse("'a'"));
+        cache.parse("'b'");
+        assertEquals(4L, cache.getMissCount());
+    }
+
+    @Test
+    void setCapacity_Shrinking_EvictsEldestEntries() {
+        ParsedExpressionCache cache = new ParsedExpressionCache(4);
+        cache.parse("1");
+        cache.parse("2");
+        cache.parse("3");
+
+        cache.setCapacity(1);
+
+        assertEquals(1, cache.size());
+        assertEquals(2L, cache.getEvictionCount());
+    }
+
+    @Test
+    void parse_ZeroCapacity_DoesNotCache() {
+        ParsedExpressionCache cache = new ParsedExpressionCache(0);
+
+        assertNotSame(cache.parse("1"), cache.parse("1"));
+        assertEquals(0, cache.size());
+        assertEquals(2L, cache.getMissCount());
+    }
+
+    @Test
+    void expressionEvaluations_ParseSameText_SharesParsedExpression() {
+        ExpressionEvaluations expressionEvaluations = new ExpressionEvaluations();
+
+        expressionEvaluations.parse("2 * 3");
+        Integer result = expressionEvaluations.parse("2 * 3").getValue();
+
+        assertEquals(6, result);
+        assertEquals(1L, expressionEvaluations.getParsedExpressions().getHitCount());
+    }
+
+}
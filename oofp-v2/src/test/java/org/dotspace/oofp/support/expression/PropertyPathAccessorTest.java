@@ -0,0 +1,172 @@
+package org.dotspace.oofp.support.expression;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.expression.EvaluationException;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PropertyPathAccessorTest {
+
+    private ExpressionEvaluations expressionEvaluations;
+
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        expressionEvaluations = new ExpressionEvaluations();
+        order = new Order();
+        order.setName("order");
+        order.setCount(3);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"name", "detail.amount", "detail?.amount", "$tag", "a_1.b2?.c"})
+    void of_WithPropertyPath_ReturnsAccessor(String expression) {
+        assertNotNull(PropertyPathAccessor.of(expression));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "name == 'x'", "detail.", ".name", "detail?amount", "true",
+            "detail.null", "#value", "1st", "name()", "detail .amount"})
+    void of_WithOtherExpression_ReturnsNull(String expression) {
+        assertNull(PropertyPathAccessor.of(expression));
+    }
+
+    @Test
+    void getValue_WithPropertyPath_ReadsThroughGetters() {
+        // Arrange
+        order.setDetail(new Detail());
+        order.getDetail().setAmount(12L);
+
+        // Act & Assert
+        assertEquals("order", expressionEvaluations.parse("name").getValue(order));
+        assertEquals(Integer.valueOf(3), expressionEvaluations.parse("count").getValue(order));
+        assertEquals(12L, expressionEvaluations.parse("detail.amount").getValue(Long.class, order));
+    }
+
+    @Test
+    void getValue_WithNullResultClass_ReadsAnyType() {
+        assertEquals("order", expressionEvaluations.parse("name").getValue(null, order));
+        assertEquals(Integer.valueOf(3), expressionEvaluations.parse("count")
+                .getValue(null, Map.of(), order));
+    }
+
+    @Test
+    void getValue_WithOtherResultClass_ConvertsThroughSpel() {
+        assertEquals("3", expressionEvaluations.parse("count").getValue(String.class, order));
+    }
+
+    @Test
+    void getValue_WithNullIntermediate_FollowsSpelNullSafety() {
+        assertNull(expressionEvaluations.parse("detail?.amount").getValue(order));
+        assertThrows(EvaluationException.class,
+                () -> expressionEvaluations.parse("detail.amount").getValue(order));
+    }
+
+    @Test
+    void getValue_WithMapRoot_FallsBackToSpel() {
+        Map<String, Object> root = new HashMap<>();
+
+        assertThrows(EvaluationException.class,
+                () -> expressionEvaluations.parse("name").getValue(root));
+    }
+
+    @Test
+    void setValue_WithPropertyPath_WritesThroughSetters() {
+        // Arrange
+        order.setDetail(new Detail());
+
+        // Act
+        expressionEvaluations.parse("detail.amount").setValue(order, 5L);
+        expressionEvaluations.parse("name").setValue(Map.of(), order, null);
+
+        // Assert
+        assertEquals(5L, order.getDetail().getAmount());
+        assertNull(order.getName());
+    }
+
+    @Test
+    void setValue_WithValueToConvert_FallsBackToSpel() {
+        expressionEvaluations.parse("count").setValue(order, "7");
+
+        assertEquals(7, order.getCount());
+    }
+
+    @Test
+    void parse_WithDirectPropertyAccessOff_StillEvaluatesPaths() {
+        expressionEvaluations.setDirectPropertyAccess(false);
+
+        assertFalse(expressionEvaluations.isDirectPropertyAccess());
+        assertEquals("order", expressionEvaluations.parse("name").getValue(order));
+    }
+
+    @Test
+    void getValue_WithMapKey_ReadsKeyAsProperty() {
+        Map<String, Object> root = Map.of("info", order);
+
+        assertEquals("order", expressionEvaluations.parse("info.name").getValue(root));
+        assertEquals("order", expressionEvaluations.parse("#this['info'].name").getValue(root));
+    }
+
+    @Test
+    void setValue_WithMapKey_PutsValue() {
+        // Arrange
+        Map<String, Object> root = new HashMap<>();
+
+        // Act
+        expressionEvaluations.parse("name").setValue(root, "x");
+
+        // Assert
+        assertEquals("x", root.get("name"));
+    }
+
+    @Test
+    void setValue_WithReadOnly_Throws() {
+        // Arrange
+        expressionEvaluations.setReadOnly(true);
+        Map<String, Object> root = new HashMap<>(Map.of("info", order));
+
+        // Act & Assert
+        assertEquals("order", expressionEvaluations.parse("info.name").getValue(root));
+        assertThrows(EvaluationException.class,
+                () -> expressionEvaluations.parse("name").setValue(order, "x"));
+        assertThrows(EvaluationException.class,
+                () -> expressionEvaluations.parse("info").setValue(root, "x"));
+        assertEquals("order", order.getName());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"T(java.lang.System).getenv()", "new java.util.ArrayList()",
+            "name = 'x'", "class"})
+    void getValue_WithReadOnlyAndRestrictedExpression_Throws(String expression) {
+        expressionEvaluations.setReadOnly(true);
+
+        ExpressionEvaluation evaluation = expressionEvaluations.parse(expression);
+
+        assertThrows(EvaluationException.class, () -> evaluation.getValue(order));
+        assertEquals("order", order.getName());
+    }
+
+    @Getter
+    @Setter
+    private static class Order {
+        private String name;
+        private int count;
+        private Detail detail;
+    }
+
+    @Getter
+    @Setter
+    private static class Detail {
+        private Long amount;
+    }
+
+}
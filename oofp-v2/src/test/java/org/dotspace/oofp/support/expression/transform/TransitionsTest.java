@@ -29,6 +29,22 @@ class TransitionsTest {
         assertEquals(2, metaOnly.stream().count());
     }
 
+    @Test
+    void testSourceDependencies() {
+        Transitions transitions = Transitions.from(Map.of(
+                "detail?.amount", "amount",
+                "items.?[qty > #min].size()", "count",
+                "name", "name"
+        ));
+
+        var dependencies = transitions.sourceDependencies();
+
+        assertEquals(Set.of("detail.amount", "items", "name"), dependencies.getPropertyPaths());
+        assertEquals(Set.of("min"), dependencies.getVariables());
+        assertTrue(dependencies.reads("detail"));
+        assertFalse(dependencies.reads("detail.count"));
+    }
+
     @Test
     void testEmptyFilter() {
         Map<String, String> rules = Map.of(
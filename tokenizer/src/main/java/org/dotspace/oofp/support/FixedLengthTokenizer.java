@@ -1,9 +1,18 @@
 package org.dotspace.oofp.support;
 
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.function.Function;
+import java.util.stream.Stream;
 
 import org.dotspace.oofp.support.tokenizer.FixedLengthTokenizationAction;
+import org.dotspace.oofp.support.tokenizer.FixedLengthTokenizationPlan;
+import org.dotspace.oofp.support.tokenizer.TokenizationDecoder;
+import org.dotspace.oofp.support.tokenizer.TokenizationFraming;
 import org.dotspace.oofp.support.tokenizer.TokenizationResult;
 
 public interface FixedLengthTokenizer<A, T> {
@@ -17,7 +26,21 @@ public interface FixedLengthTokenizer<A, T> {
 	
 	public FixedLengthTokenizer<A, T> addAll(List<FixedLengthTokenizationAction> tokenizationActions);
 
+	public FixedLengthTokenizationPlan<T> compile();
+
 	public TokenizationResult<T> split(String msgText);
+
+	public TokenizationResult<T> split(byte[] record, TokenizationDecoder decoder);
+
+	public TokenizationResult<T> split(ByteBuffer record, TokenizationDecoder decoder);
+
+	public Stream<TokenizationResult<T>> split(Reader reader, TokenizationFraming framing);
+
+	public Stream<TokenizationResult<T>> split(InputStream inputStream, Charset charset, 
+			TokenizationFraming framing);
+
+	public Stream<TokenizationResult<T>> split(Path path, Charset charset, 
+			TokenizationFraming framing);
 	
 	public Long getTotalSize();
 
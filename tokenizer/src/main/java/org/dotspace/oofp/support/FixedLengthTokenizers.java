@@ -1,12 +1,17 @@
 package org.dotspace.oofp.support;
 
+import java.nio.charset.Charset;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
+import org.dotspace.oofp.support.tokenizer.FixedLengthWriter;
+
 public interface FixedLengthTokenizers {
 
 	public <T> FixedLengthTokenizer<?, T> tokenize(Supplier<T> supplier);
 
 	public <A, T> FixedLengthTokenizer<A, T> tokenize(Function<A, T> constructor, A args);
 
+	public <T> FixedLengthWriter<T> write(Charset charset);
+
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package org.dotspace.oofp.support.tokenizer;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A field formatter that writes the raw field bytes, the counterpart of
+ * {@link TokenizationByteMapper}. The writer hands it the field from position to limit; bytes left
+ * unwritten are padded with blanks. {@link #format(Object, int, StringBuilder)} falls back to one
+ * char per byte and so is only meaningful for records encoded as ISO-8859-1.
+ */
+public interface FixedLengthByteFormatter extends FixedLengthFieldFormatter {
+
+	public void formatBytes(Object value, ByteBuffer field);
+
+	@Override
+	public default void format(Object value, int length, StringBuilder text) {
+		ByteBuffer field = ByteBuffer.allocate(length);
+		formatBytes(value, field);
+		for (int i = 0; i < field.position(); i++) {
+			text.append((char) (field.get(i) & 0xFF));
+		}
+	}
+
+}
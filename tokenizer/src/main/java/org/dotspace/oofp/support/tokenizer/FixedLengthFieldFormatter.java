@@ -0,0 +1,11 @@
+package org.dotspace.oofp.support.tokenizer;
+
+/**
+ * Formats one non-null field value of a fixed-length record as text. The writer encodes the text,
+ * truncates it to the field length in bytes and pads it with blanks.
+ */
+public interface FixedLengthFieldFormatter {
+
+	public void format(Object value, int length, StringBuilder text);
+
+}
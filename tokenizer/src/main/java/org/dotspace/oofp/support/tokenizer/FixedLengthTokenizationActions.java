@@ -1,7 +1,14 @@
 package org.dotspace.oofp.support.tokenizer;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.dotspace.oofp.support.ExpressionSource;
 import org.dotspace.oofp.support.FixedLengthTokenizer;
 import org.dotspace.oofp.support.FixedLengthTokenizers;
 import org.dotspace.oofp.support.builder.GeneralBuilder;
@@ -9,14 +16,17 @@ import org.dotspace.oofp.support.builder.GeneralBuilders;
 import org.dotspace.oofp.support.builder.writer.GeneralBuildingWriters;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
-public class FixedLengthTokenizationActions<T> {
+public class FixedLengthTokenizationActions<T> implements ExpressionSource {
 
 	private Class<T> destinationClazz;
 
 	private List<FixedLengthTokenizationAction> actions;
 
+	private volatile CompiledTokenization<T> compiled;
+
 	@JsonCreator
 	public static <T> FixedLengthTokenizationActions<T> into(
 			@JsonProperty("destinationClazz") Class<T> destinationClazz,
@@ -39,6 +49,7 @@ public class FixedLengthTokenizationActions<T> {
 		FixedLengthTokenizationAction action = parseField(
 				fieldPath, textLength, valueMapperExpression).build();
 		actions.add(action);
+		compiled = null;
 		return this;
 	}
 
@@ -64,17 +75,52 @@ public class FixedLengthTokenizationActions<T> {
 						optionsExpression))
 				.build();
 		actions.add(action);
+		compiled = null;
 		return this;
 	}
 
 	public TokenizationResult<T> tokenize(
 			FixedLengthTokenizers fixedLengthTokenizers, String msgText) {
+		TokenizationResult<T> result = compile(fixedLengthTokenizers).split(msgText);
+		return result;
+	}
+
+	public TokenizationResult<T> tokenize(
+			FixedLengthTokenizers fixedLengthTokenizers, ByteBuffer record, 
+			TokenizationDecoder decoder) {
+		TokenizationResult<T> result = compile(fixedLengthTokenizers).split(record, decoder);
+		return result;
+	}
+
+	public FixedLengthTokenizationPlan<T> compile(FixedLengthTokenizers fixedLengthTokenizers) {
+		CompiledTokenization<T> current = compiled;
+		if (null != current && current.fixedLengthTokenizers == fixedLengthTokenizers) {
+			return current.plan;
+		}
+
 		FixedLengthTokenizer<?, T> tokenizer = fixedLengthTokenizers
 				.tokenize(() -> newDestination())
 				.addAll(actions);
 		
-		TokenizationResult<T> result = tokenizer.split(msgText);
-		return result;
+		FixedLengthTokenizationPlan<T> plan = tokenizer.compile();
+		compiled = new CompiledTokenization<>(fixedLengthTokenizers, plan);
+		return plan;
+	}
+
+	public FixedLengthWriter<T> write(FixedLengthTokenizers fixedLengthTokenizers, 
+			Charset charset) {
+		FixedLengthWriter<T> writer = fixedLengthTokenizers.write(charset);
+		return writer.addAll(actions);
+	}
+
+	@JsonIgnore
+	@Override
+	public Collection<String> getConfiguredExpressions() {
+		return actions.stream()
+				.flatMap(action -> Stream.of(action.getPropertyPath(), 
+						action.getValueMapperExpression(), action.getOptionsExpression()))
+				.filter(Objects::nonNull)
+				.collect(Collectors.toList());
 	}
 
 	private T newDestination() {
@@ -85,4 +131,18 @@ public class FixedLengthTokenizationActions<T> {
 		}
 	}
 
+	private static class CompiledTokenization<T> {
+
+		private final FixedLengthTokenizers fixedLengthTokenizers;
+
+		private final FixedLengthTokenizationPlan<T> plan;
+
+		private CompiledTokenization(FixedLengthTokenizers fixedLengthTokenizers,
+				FixedLengthTokenizationPlan<T> plan) {
+			this.fixedLengthTokenizers = fixedLengthTokenizers;
+			this.plan = plan;
+		}
+
+	}
+
 }
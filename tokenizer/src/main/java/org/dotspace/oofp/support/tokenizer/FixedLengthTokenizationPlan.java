@@ -0,0 +1,296 @@
+package org.dotspace.oofp.support.tokenizer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.apache.commons.lang3.StringUtils;
+import org.dotspace.oofp.support.ExpressionEvaluation;
+import org.dotspace.oofp.support.expression.ExpressionDependencies;
+
+public class FixedLengthTokenizationPlan<T> {
+
+	private final FixedLengthTokenizersImpl fixedLengthTokenizers;
+
+	private final Supplier<T> destinations;
+
+	private final TokenizationStep[] steps;
+
+	private final long totalSize;
+
+	private FixedLengthTokenizationPlan(FixedLengthTokenizersImpl fixedLengthTokenizers,
+			Supplier<T> destinations, TokenizationStep[] steps, long totalSize) {
+		this.fixedLengthTokenizers = fixedLengthTokenizers;
+		this.destinations = destinations;
+		this.steps = steps;
+		this.totalSize = totalSize;
+	}
+
+	public static <T> FixedLengthTokenizationPlan<T> compile(
+			FixedLengthTokenizersImpl fixedLengthTokenizers, Supplier<T> destinations,
+			List<TokenizationProperty> tokenizationProperties) {
+		TokenizationStep[] steps = new TokenizationStep[tokenizationProperties.size()];
+
+		int offset = 0;
+		for (int i = 0; i < steps.length; i++) {
+			TokenizationProperty tknztnProperty = tokenizationProperties.get(i);
+			steps[i] = new TokenizationStep(tknztnProperty.getPath(), offset, 
+					tknztnProperty.getLength(),
+					tknztnProperty.getValueMapper(),
+					getWriter(fixedLengthTokenizers, tknztnProperty.getPath()),
+					getTokenizationMapperName(fixedLengthTokenizers, 
+							tknztnProperty.getTokenizationMapperName()));
+			offset += tknztnProperty.getLength();
+		}
+
+		return new FixedLengthTokenizationPlan<>(fixedLengthTokenizers, destinations, steps, offset);
+	}
+
+	/**
+	 * A plan decoding only the fields whose property paths the dependencies read, typically those
+	 * of the reader expressions of a transformation; fields selecting a dispatch table are always
+	 * decoded since the layout after them depends on their value, and dispatched items are
+	 * decoded in full.
+	 */
+	public FixedLengthTokenizationPlan<T> project(ExpressionDependencies dependencies) {
+		TokenizationStep[] projected = new TokenizationStep[steps.length];
+		for (int i = 0; i < steps.length; i++) {
+			TokenizationStep step = steps[i];
+			projected[i] = null != step.tokenizationMapperName 
+					|| (null != step.path && dependencies.reads(step.path))
+					? step
+					: new TokenizationStep(step.path, step.offset, step.length, null, null, null);
+		}
+
+		return new FixedLengthTokenizationPlan<>(fixedLengthTokenizers, destinations, projected, 
+				totalSize);
+	}
+
+	private static BiConsumer<Object, Object> getWriter(
+			FixedLengthTokenizersImpl fixedLengthTokenizers, String propertyPath) {
+		if (null == propertyPath) {
+			return null;
+		}
+
+		ExpressionEvaluation evaluation = fixedLengthTokenizers.expressions.parse(propertyPath);
+		return evaluation::setValue;
+	}
+
+	/**
+	 * The dispatch table is resolved here only to fail on an unknown mapper name when compiling;
+	 * splitting looks it up again, so replaced mappers apply to plans compiled before.
+	 */
+	private static String getTokenizationMapperName(
+			FixedLengthTokenizersImpl fixedLengthTokenizers, String tokenizationMapperName) {
+		if (null != tokenizationMapperName) {
+			fixedLengthTokenizers.getDispatchTable(tokenizationMapperName);
+		}
+		return tokenizationMapperName;
+	}
+
+	public TokenizationResult<T> split(String msgText) {
+		T instance = destinations.get();
+		TokenizationResult<T> result = new TokenizationResult<>();
+		result.setRoot(instance);
+
+		int msgTextEnd = msgText.length();
+		int shift = 0;
+
+		for (TokenizationStep step : steps) {
+			if (null == step.valueMapper) {
+				continue;
+			}
+
+			int pos = step.offset + shift;
+			Object value = step.valueMapper.apply(slice(msgText, pos, step.length, msgTextEnd));
+
+			if (null == value || null == step.writer) {
+				continue;
+			}
+
+			step.writer.accept(instance, value);
+
+			if (null == step.tokenizationMapperName) {
+				continue;
+			}
+
+			String itemText = msgText.substring(Math.min(pos + step.length, msgTextEnd));
+			shift += tokenizeItem(result, fixedLengthTokenizers
+					.getDispatchTable(step.tokenizationMapperName).dispatch(value),
+					tknztnActions -> tknztnActions.tokenize(fixedLengthTokenizers, itemText));
+		}
+
+		result.setTokenizedTextSize(totalSize + shift);
+		return result;
+	}
+
+	public TokenizationResult<T> split(byte[] record, TokenizationDecoder decoder) {
+		return split(ByteBuffer.wrap(record), decoder);
+	}
+
+	public TokenizationResult<T> split(ByteBuffer record, TokenizationDecoder decoder) {
+		T instance = destinations.get();
+		TokenizationResult<T> result = new TokenizationResult<>();
+		result.setRoot(instance);
+
+		ByteBuffer field = record.duplicate();
+		int recordStart = record.position();
+		int recordEnd = record.limit();
+		int shift = 0;
+
+		for (TokenizationStep step : steps) {
+			if (null == step.valueMapper) {
+				continue;
+			}
+
+			int pos = recordStart + step.offset + shift;
+			Object value = null != step.byteMapper
+					? applyBytes(step, field, pos, recordEnd)
+					: step.valueMapper.apply(decode(field, decoder, pos, step.length, recordEnd));
+
+			if (null == value || null == step.writer) {
+				continue;
+			}
+
+			step.writer.accept(instance, value);
+
+			if (null == step.tokenizationMapperName) {
+				continue;
+			}
+
+			ByteBuffer item = record.duplicate();
+			item.position(Math.min(pos + step.length, recordEnd));
+			shift += tokenizeItem(result, fixedLengthTokenizers
+					.getDispatchTable(step.tokenizationMapperName).dispatch(value),
+					tknztnActions -> tknztnActions.tokenize(fixedLengthTokenizers, item, decoder));
+		}
+
+		result.setTokenizedTextSize(totalSize + shift);
+		return result;
+	}
+
+	private long tokenizeItem(TokenizationResult<T> result,
+			TokenizationDispatchTable.Dispatch dispatch,
+			Function<FixedLengthTokenizationActions<?>, TokenizationResult<?>> itemTokenizer) {
+		TokenizationResult<?> itemResult = itemTokenizer.apply(dispatch.getTokenizationActions());
+		result.put(dispatch.getResultKey(), itemResult.getRoot());
+		for (Map.Entry<String, Object> e : itemResult.getMappingItemEntries()) {
+			result.put(e.getKey(), e.getValue());
+		}
+
+		return itemResult.getTokenizedTextSize();
+	}
+
+	/**
+	 * A byte field cut short by the end of the record reads as null, since a partial packed or
+	 * zoned number would read as a wrong amount.
+	 */
+	private Object applyBytes(TokenizationStep step, ByteBuffer field, int pos, int recordEnd) {
+		if (pos + step.length > recordEnd) {
+			return null;
+		}
+
+		return step.byteMapper.applyBytes(slice(field, pos, step.length, recordEnd));
+	}
+
+	private String decode(ByteBuffer field, TokenizationDecoder decoder, int pos, int length, 
+			int recordEnd) {
+		if (pos >= recordEnd) {
+			return StringUtils.EMPTY;
+		}
+
+		return decoder.decode(slice(field, pos, length, recordEnd));
+	}
+
+	private ByteBuffer slice(ByteBuffer field, int pos, int length, int recordEnd) {
+		int start = Math.min(pos, recordEnd);
+		field.limit(Math.min(start + length, recordEnd));
+		field.position(start);
+		return field;
+	}
+
+	private String slice(String msgText, int pos, int length, int msgTextEnd) {
+		if (pos >= msgTextEnd) {
+			return StringUtils.EMPTY;
+		}
+
+		return msgText.substring(pos, Math.min(pos + length, msgTextEnd));
+	}
+
+	public Stream<TokenizationResult<T>> split(Reader reader, TokenizationFraming framing) {
+		return framing.records(reader).map(this::split);
+	}
+
+	public Stream<TokenizationResult<T>> split(InputStream inputStream, Charset charset,
+			TokenizationFraming framing) {
+		return split(new InputStreamReader(inputStream, charset), framing);
+	}
+
+	public Stream<TokenizationResult<T>> split(Path path, Charset charset,
+			TokenizationFraming framing) {
+		BufferedReader reader;
+		try {
+			reader = Files.newBufferedReader(path, charset);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		return split(reader, framing).onClose(() -> {
+			try {
+				reader.close();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+	}
+
+	public long getTotalSize() {
+		return totalSize;
+	}
+
+	private static class TokenizationStep {
+
+		private final String path;
+
+		private final int offset;
+
+		private final int length;
+
+		private final Function<String, Object> valueMapper;
+
+		private final TokenizationByteMapper byteMapper;
+
+		private final BiConsumer<Object, Object> writer;
+
+		private final String tokenizationMapperName;
+
+		private TokenizationStep(String path, int offset, int length, 
+				Function<String, Object> valueMapper, BiConsumer<Object, Object> writer, 
+				String tokenizationMapperName) {
+			this.path = path;
+			this.offset = offset;
+			this.length = length;
+			this.valueMapper = valueMapper;
+			this.byteMapper = valueMapper instanceof TokenizationByteMapper
+					? (TokenizationByteMapper) valueMapper
+					: null;
+			this.writer = writer;
+			this.tokenizationMapperName = tokenizationMapperName;
+		}
+
+	}
+
+}
@@ -1,15 +1,18 @@
 package org.dotspace.oofp.support.tokenizer;
 
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-import org.apache.commons.lang3.StringUtils;
 import org.dotspace.oofp.support.FixedLengthTokenizer;
 import org.dotspace.oofp.support.builder.GeneralBuilders;
 import org.dotspace.oofp.support.builder.writer.GeneralBuildingWriters;
@@ -23,6 +26,7 @@ public class FixedLengthTokenizerImpl<A, T> implements FixedLengthTokenizer<A, T
 	private Function<A, T> constructors;
 	private A constructionArgs;
 	private List<TokenizationProperty> tokenizationProperties = new ArrayList<>();
+	private volatile FixedLengthTokenizationPlan<T> plan;
 	
 	protected FixedLengthTokenizerImpl(Supplier<T> supplier, FixedLengthTokenizersImpl fixedLengthTokenizers) {
 		super();
@@ -51,6 +55,7 @@ public class FixedLengthTokenizerImpl<A, T> implements FixedLengthTokenizer<A, T
 				.with(GeneralBuildingWriters.set(
 						TokenizationProperty::setLength, length))
 				.build());
+		plan = null;
 		return this;
 	}
 	
@@ -70,6 +75,7 @@ public class FixedLengthTokenizerImpl<A, T> implements FixedLengthTokenizer<A, T
 				.with(GeneralBuildingWriters.set(
 						TokenizationProperty::setLength, length))
 				.build());
+		plan = null;
 		return this;
 	}
 
@@ -96,6 +102,7 @@ public class FixedLengthTokenizerImpl<A, T> implements FixedLengthTokenizer<A, T
 							TokenizationProperty::setLength, length))
 					.build());
 		});
+		plan = null;
 		return this;
 	}
 	
@@ -121,97 +128,47 @@ public class FixedLengthTokenizerImpl<A, T> implements FixedLengthTokenizer<A, T
 		return valueMapper;
 	}
 
+	@Override
+	public FixedLengthTokenizationPlan<T> compile() {
+		FixedLengthTokenizationPlan<T> compiled = plan;
+		if (null == compiled) {
+			compiled = FixedLengthTokenizationPlan.compile(fixedLengthTokenizers, 
+					() -> constructors.apply(constructionArgs), tokenizationProperties);
+			plan = compiled;
+		}
+		return compiled;
+	}
+
 	@Override
 	public TokenizationResult<T> split(String msgText) {
-		T instance = constructors.apply(constructionArgs);
-		Map<String, Object> mappingItems = new HashMap<>();
-				
-		int pos = 0;
-		int msgTextEnd = msgText.length();
-		
-		for (TokenizationProperty tknztnProperty : tokenizationProperties) {
-			
-			String propertyPath = tknztnProperty.getPath();
-			Function<String, Object> valueMapper = tknztnProperty.getValueMapper();
-						
-			int length = tknztnProperty.getLength();
-									
-			class Context {
-				int pos;
-				int length;
-				
-				Object value;
-				FixedLengthTokenizationActions<?> tknztnActions;
-				String tknztnKey;
-				
-				public Context(int pos, int length) {
-					this.pos = pos < msgTextEnd ? pos : msgTextEnd;
-					this.length = (pos + length) <= msgTextEnd ? length : Optional.ofNullable(msgTextEnd - pos)
-							.filter(l -> l >= 0)
-							.orElse(0);
-				}
+		return compile().split(msgText);
+	}
 
-			}
-			
-			Context ctx = new Context(pos, length);
+	@Override
+	public TokenizationResult<T> split(byte[] record, TokenizationDecoder decoder) {
+		return compile().split(record, decoder);
+	}
 
-			Optional.ofNullable(valueMapper).ifPresent(vlMpr -> {
-				ctx.value = Optional.ofNullable(msgText)
-						.map(mt -> ctx.pos < msgTextEnd ? mt : StringUtils.EMPTY)
-						.map(mt -> mt.substring(ctx.pos, ctx.pos + ctx.length))
-						.map(vlMpr)
-						.orElse(null);
-				
-				if (null == ctx.value) {
-					return;
-				}
-				
-				Optional.ofNullable(propertyPath)
-				.ifPresent(pp -> {
-					fixedLengthTokenizers.expressions.parse(pp)
-					.setValue(instance, ctx.value);
-					
-					Optional.ofNullable(tknztnProperty.getTokenizationMapperName())
-					.ifPresent(tknztnMprNm -> {
-						ctx.tknztnActions = fixedLengthTokenizers.tokenizationActionsMappers
-								.get(tknztnMprNm)
-								.get(ctx.value);
-						
-						ctx.tknztnKey = tknztnMprNm
-								.concat(":")
-								.concat(ctx.value.toString());
-						
-					});
-				});
+	@Override
+	public TokenizationResult<T> split(ByteBuffer record, TokenizationDecoder decoder) {
+		return compile().split(record, decoder);
+	}
 
-			});
-			
-			pos += length;
-			
-			if (null == ctx.tknztnKey) {
-				continue;
-			}
-			
-			TokenizationResult<?> itemResult = ctx.tknztnActions
-					.tokenize(fixedLengthTokenizers, msgText.substring(pos));
-			mappingItems.put(ctx.tknztnKey, itemResult.getRoot());
-			itemResult.getMappingItemEntries().forEach(e -> {
-				mappingItems.put(e.getKey(), e.getValue());
-			});
-			
-			pos += itemResult.getTokenizedTextSize();
+	@Override
+	public Stream<TokenizationResult<T>> split(Reader reader, TokenizationFraming framing) {
+		return compile().split(reader, framing);
+	}
 
-		}
-		
-		TokenizationResult<T> result = GeneralBuilders.of(TokenizationResult<T>::new)
-				.with(GeneralBuildingWriters.set(TokenizationResult<T>::setRoot, instance))
-				.with(GeneralBuildingWriters.set(TokenizationResult<T>::setTokenizedTextSize, 
-						(long) pos))
-				.with(GeneralBuildingWriters.setForEach((x, e) -> x.put(e.getKey(), e.getValue()),  
-						mappingItems.entrySet()))
-				.build();
-		
-		return result;
+	@Override
+	public Stream<TokenizationResult<T>> split(InputStream inputStream, Charset charset, 
+			TokenizationFraming framing) {
+		return compile().split(inputStream, charset, framing);
+	}
+
+	@Override
+	public Stream<TokenizationResult<T>> split(Path path, Charset charset, 
+			TokenizationFraming framing) {
+		return compile().split(path, charset, framing);
 	}
 
 	@Override
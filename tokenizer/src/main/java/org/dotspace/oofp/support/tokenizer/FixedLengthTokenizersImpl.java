@@ -1,23 +1,40 @@
 package org.dotspace.oofp.support.tokenizer;
 
+import java.nio.charset.Charset;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.dotspace.oofp.support.ExpressionEvaluations;
+import org.dotspace.oofp.support.ExpressionSource;
 import org.dotspace.oofp.support.FixedLengthTokenizer;
 import org.dotspace.oofp.support.FixedLengthTokenizers;
 import org.springframework.stereotype.Component;
 
 @Component
-public class FixedLengthTokenizersImpl implements FixedLengthTokenizers {
+public class FixedLengthTokenizersImpl implements FixedLengthTokenizers, ExpressionSource {
 
 	protected ExpressionEvaluations expressions;
 	
 	protected TokenizationFunctors functors;
 	
+	protected TokenizationFormatters formatters;
+	
 	protected Map<String, Map<Object, FixedLengthTokenizationActions<?>>> tokenizationActionsMappers;
 	
+	protected Map<String, FixedLengthTokenizationActions<?>> defaultTokenizationActions;
+	
+	private final ConcurrentMap<String, TokenizationDispatchTable> dispatchTables = 
+			new ConcurrentHashMap<>();
+	
 	@Override
 	public <T> FixedLengthTokenizer<?, T> tokenize(Supplier<T> supplier) {
 		return new FixedLengthTokenizerImpl<>(supplier, this);
@@ -28,6 +45,11 @@ public class FixedLengthTokenizersImpl implements FixedLengthTokenizers {
 		return new FixedLengthTokenizerImpl<>(constructor, args, this);
 	}
 
+	@Override
+	public <T> FixedLengthWriter<T> write(Charset charset) {
+		return new FixedLengthWriter<>(charset, this);
+	}
+
 	public ExpressionEvaluations getExpressions() {
 		return expressions;
 	}
@@ -45,6 +67,20 @@ public class FixedLengthTokenizersImpl implements FixedLengthTokenizers {
 		this.functors.associate(expressions);
 	}
 
+	public TokenizationFormatters getFormatters() {
+		if (null == formatters) {
+			TokenizationFormatters defaultFormatters = new TokenizationFormatters();
+			defaultFormatters.associate(expressions);
+			formatters = defaultFormatters;
+		}
+		return formatters;
+	}
+
+	public void setFormatters(TokenizationFormatters formatters) {
+		this.formatters = formatters;
+		this.formatters.associate(expressions);
+	}
+
 	public Map<String, Map<Object, FixedLengthTokenizationActions<?>>> getTokenizationActionsMappers() {
 		return tokenizationActionsMappers;
 	}
@@ -52,6 +88,67 @@ public class FixedLengthTokenizersImpl implements FixedLengthTokenizers {
 	public void setTokenizationActionsMappers(
 			Map<String, Map<Object, FixedLengthTokenizationActions<?>>> tokenizationActionsMappers) {
 		this.tokenizationActionsMappers = tokenizationActionsMappers;
+		dispatchTables.clear();
+	}
+
+	public Map<String, FixedLengthTokenizationActions<?>> getDefaultTokenizationActions() {
+		return defaultTokenizationActions;
+	}
+
+	public void setDefaultTokenizationActions(
+			Map<String, FixedLengthTokenizationActions<?>> defaultTokenizationActions) {
+		this.defaultTokenizationActions = defaultTokenizationActions;
+		dispatchTables.clear();
+	}
+
+	@Override
+	public Collection<String> getConfiguredExpressions() {
+		Stream<FixedLengthTokenizationActions<?>> mapped = Optional
+				.ofNullable(tokenizationActionsMappers)
+				.map(Map::values)
+				.orElse(Collections.emptyList())
+				.stream()
+				.flatMap(m -> m.values().stream());
+		Stream<FixedLengthTokenizationActions<?>> defaults = Optional
+				.ofNullable(defaultTokenizationActions)
+				.map(Map::values)
+				.orElse(Collections.emptyList())
+				.stream();
+		
+		return Stream.concat(mapped, defaults)
+				.filter(Objects::nonNull)
+				.flatMap(actions -> actions.getConfiguredExpressions().stream())
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * The table built from the current mappers; replacing the mappers or the default actions
+	 * discards the tables, and tokenizers compiled before look the new ones up on their next split.
+	 */
+	public TokenizationDispatchTable getDispatchTable(String tokenizationMapperName) {
+		TokenizationDispatchTable dispatchTable = dispatchTables.get(tokenizationMapperName);
+		return null != dispatchTable 
+				? dispatchTable 
+				: dispatchTables.computeIfAbsent(tokenizationMapperName, this::newDispatchTable);
+	}
+
+	private TokenizationDispatchTable newDispatchTable(String tokenizationMapperName) {
+		Map<Object, FixedLengthTokenizationActions<?>> tokenizationActions = 
+				null != tokenizationActionsMappers 
+				? tokenizationActionsMappers.get(tokenizationMapperName) 
+				: null;
+		FixedLengthTokenizationActions<?> defaultActions = null != defaultTokenizationActions 
+				? defaultTokenizationActions.get(tokenizationMapperName) 
+				: null;
+		if (null == tokenizationActions && null == defaultActions) {
+			throw new IllegalArgumentException(String.format(
+					"no tokenization actions mapper named %s", tokenizationMapperName));
+		}
+		
+		return new TokenizationDispatchTable(tokenizationMapperName, 
+				null != tokenizationActions ? tokenizationActions 
+						: Collections.<Object, FixedLengthTokenizationActions<?>>emptyMap(), 
+				defaultActions);
 	}
 
 }
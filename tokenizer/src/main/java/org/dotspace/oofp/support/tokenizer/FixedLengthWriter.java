@@ -0,0 +1,280 @@
+package org.dotspace.oofp.support.tokenizer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.CoderResult;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.apache.commons.lang3.StringUtils;
+import org.dotspace.oofp.support.ExpressionEvaluation;
+import org.dotspace.oofp.support.builder.GeneralBuilders;
+import org.dotspace.oofp.support.builder.writer.GeneralBuildingWriters;
+import org.dotspace.oofp.support.expression.PropertyPathAccessor;
+import org.dotspace.oofp.util.functional.BiConsumers;
+import org.dotspace.oofp.util.functional.Suppliers;
+import org.springframework.expression.EvaluationException;
+
+/**
+ * Writes objects as fixed-length records laid out by the same {@link FixedLengthTokenizationAction}s
+ * that tokenize them. Each field is formatted into a reused builder, encoded straight into the
+ * record buffer, truncated to its length in bytes and padded with blanks; a null value writes a
+ * blank field. Nested tokenization mappers are not followed, only their discriminator field is
+ * written. Not thread-safe, so use one writer per thread.
+ */
+public class FixedLengthWriter<T> {
+
+	public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+	private final FixedLengthTokenizersImpl fixedLengthTokenizers;
+
+	private final CharsetEncoder encoder;
+
+	private final byte[] padding;
+
+	private final List<WritingStep> steps = new ArrayList<>();
+
+	private final StringBuilder text = new StringBuilder();
+
+	private CharBuffer chars = CharBuffer.allocate(64);
+
+	private ByteBuffer record;
+
+	private int recordSize;
+
+	private String recordSeparator = "";
+
+	private byte[] separator = new byte[0];
+
+	private int bufferSize = DEFAULT_BUFFER_SIZE;
+
+	protected FixedLengthWriter(Charset charset, FixedLengthTokenizersImpl fixedLengthTokenizers) {
+		this.fixedLengthTokenizers = fixedLengthTokenizers;
+		this.encoder = charset.newEncoder()
+				.onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		this.padding = " ".getBytes(charset);
+	}
+
+	public FixedLengthWriter<T> add(String propertyPath, FixedLengthFieldFormatter formatter,
+			int length) {
+		steps.add(new WritingStep(recordSize, length, getReader(propertyPath), formatter));
+		recordSize += length;
+		return this;
+	}
+
+	public FixedLengthWriter<T> addAll(List<FixedLengthTokenizationAction> tokenizationActions) {
+		tokenizationActions.forEach(action -> add(
+				action.getPropertyPath(), getFormatter(action), action.getTextLength()));
+		return this;
+	}
+
+	private Function<Object, Object> getReader(String propertyPath) {
+		if (null == propertyPath) {
+			return null;
+		}
+
+		ExpressionEvaluation evaluation = fixedLengthTokenizers.expressions.parse(
+				PropertyPathAccessor.nullSafe(propertyPath));
+		return evaluation::getValue;
+	}
+
+	/**
+	 * The formatter the value mapper expression names in {@link TokenizationFormatters}; a layout
+	 * without a value mapper expression is written as text, one naming no formatter fails rather
+	 * than writing its field as text.
+	 */
+	private FixedLengthFieldFormatter getFormatter(FixedLengthTokenizationAction action) {
+		String valueMapperExpression = action.getValueMapperExpression();
+		if (StringUtils.isBlank(valueMapperExpression)) {
+			return fixedLengthTokenizers.getFormatters().getText();
+		}
+
+		String optionsExpression = action.getOptionsExpression();
+
+		Object options = Optional.ofNullable(optionsExpression)
+				.map(optsExpr -> fixedLengthTokenizers.expressions.parse(optsExpr)
+						.getValue(fixedLengthTokenizers.functors))
+				.orElse(null);
+
+		FixedLengthFieldFormatter formatter;
+		try {
+			formatter = fixedLengthTokenizers.expressions
+					.parse(valueMapperExpression)
+					.getValue(FixedLengthFieldFormatter.class, GeneralBuilders
+							.of(Suppliers.newHashMap(String.class, Object.class))
+							.with(GeneralBuildingWriters.set(
+									BiConsumers.forMapOf("options", Object.class), options))
+							.build(), fixedLengthTokenizers.getFormatters());
+		} catch (EvaluationException e) {
+			throw noFormatter(action, e);
+		}
+
+		if (null == formatter) {
+			throw noFormatter(action, null);
+		}
+		return formatter;
+	}
+
+	private IllegalStateException noFormatter(FixedLengthTokenizationAction action, 
+			EvaluationException cause) {
+		return new IllegalStateException(String.format("no formatter for %s of %s", 
+				action.getValueMapperExpression(), action.getPropertyPath()), cause);
+	}
+
+	public ByteBuffer format(T item) {
+		if (null == record || record.capacity() < recordSize) {
+			record = ByteBuffer.allocate(recordSize);
+		}
+
+		record.clear();
+		format(item, record);
+		record.flip();
+		return record;
+	}
+
+	public byte[] toBytes(T item) {
+		ByteBuffer formatted = format(item);
+		byte[] bytes = new byte[formatted.remaining()];
+		formatted.get(bytes);
+		return bytes;
+	}
+
+	public void format(T item, ByteBuffer out) {
+		if (out.remaining() < recordSize) {
+			throw new BufferOverflowException();
+		}
+
+		int start = out.position();
+		ByteBuffer field = out.duplicate();
+		for (WritingStep step : steps) {
+			int pos = start + step.offset;
+			field.limit(pos + step.length);
+			field.position(pos);
+
+			Object value = null != step.reader ? step.reader.apply(item) : null;
+			if (null != value && null != step.byteFormatter) {
+				step.byteFormatter.formatBytes(value, field);
+			} else if (null != value) {
+				text.setLength(0);
+				step.formatter.format(value, step.length, text);
+				encode(field);
+			}
+
+			for (int i = 0; field.hasRemaining(); i++) {
+				field.put(padding[i % padding.length]);
+			}
+		}
+		out.position(start + recordSize);
+	}
+
+	private void encode(ByteBuffer field) {
+		if (chars.capacity() < text.length()) {
+			chars = CharBuffer.allocate(text.length());
+		}
+
+		chars.clear();
+		text.getChars(0, text.length(), chars.array(), 0);
+		chars.limit(text.length());
+
+		encoder.reset();
+		CoderResult result = encoder.encode(chars, field, true);
+		if (!result.isOverflow()) {
+			encoder.flush(field);
+		}
+	}
+
+	public long write(Iterator<? extends T> items, WritableByteChannel channel) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(
+				Math.max(bufferSize, recordSize + separator.length));
+		long count = 0;
+		while (items.hasNext()) {
+			if (buffer.remaining() < recordSize + separator.length) {
+				drain(buffer, channel);
+			}
+			format(items.next(), buffer);
+			buffer.put(separator);
+			count++;
+		}
+		drain(buffer, channel);
+		return count;
+	}
+
+	public long write(Stream<? extends T> items, Path path) {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			return write(items.iterator(), channel);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private void drain(ByteBuffer buffer, WritableByteChannel channel) throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	public int getRecordSize() {
+		return recordSize;
+	}
+
+	public String getRecordSeparator() {
+		return recordSeparator;
+	}
+
+	public void setRecordSeparator(String recordSeparator) {
+		this.recordSeparator = recordSeparator;
+		this.separator = recordSeparator.getBytes(encoder.charset());
+	}
+
+	public int getBufferSize() {
+		return bufferSize;
+	}
+
+	public void setBufferSize(int bufferSize) {
+		this.bufferSize = bufferSize;
+	}
+
+	private static class WritingStep {
+
+		private final int offset;
+
+		private final int length;
+
+		private final Function<Object, Object> reader;
+
+		private final FixedLengthFieldFormatter formatter;
+
+		private final FixedLengthByteFormatter byteFormatter;
+
+		private WritingStep(int offset, int length, Function<Object, Object> reader,
+				FixedLengthFieldFormatter formatter) {
+			this.offset = offset;
+			this.length = length;
+			this.reader = reader;
+			this.formatter = formatter;
+			this.byteFormatter = formatter instanceof FixedLengthByteFormatter
+					? (FixedLengthByteFormatter) formatter
+					: null;
+		}
+
+	}
+
+}
@@ -0,0 +1,266 @@
+package org.dotspace.oofp.support.tokenizer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Tokenizes a file by memory-mapping record-aligned chunks and splitting them in parallel with one
+ * shared {@link FixedLengthTokenizationPlan}. Field lengths are byte counts, as in
+ * {@link FixedLengthTokenizationPlan#split(ByteBuffer, TokenizationDecoder)}.
+ */
+public class MappedFileTokenizer<T> {
+
+	public static final int DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;
+
+	private final FixedLengthTokenizationPlan<T> plan;
+
+	private final Charset charset;
+
+	private final TokenizationFraming framing;
+
+	private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+	private ExecutorService executor = ForkJoinPool.commonPool();
+
+	private int maxChunksInFlight = 2 * ForkJoinPool.getCommonPoolParallelism() + 1;
+
+	public MappedFileTokenizer(FixedLengthTokenizationPlan<T> plan, Charset charset,
+			TokenizationFraming framing) {
+		this.plan = plan;
+		this.charset = charset;
+		this.framing = framing;
+	}
+
+	public Stream<TokenizationChunk<T>> tokenize(Path path, boolean ordered) {
+		FileChannel channel;
+		try {
+			channel = FileChannel.open(path, StandardOpenOption.READ);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		List<long[]> ranges;
+		try {
+			ranges = getChunkRanges(channel);
+		} catch (IOException e) {
+			closeQuietly(channel, e);
+			throw new UncheckedIOException(e);
+		} catch (RuntimeException e) {
+			closeQuietly(channel, e);
+			throw e;
+		}
+
+		ChunkIterator chunks = ordered
+				? new OrderedChunkIterator(channel, ranges)
+				: new UnorderedChunkIterator(channel, ranges);
+		return StreamSupport.stream(Spliterators.spliterator(chunks, ranges.size(),
+						Spliterator.NONNULL | (ordered ? Spliterator.ORDERED : 0)), false)
+				.onClose(chunks::close);
+	}
+
+	public Stream<TokenizationResult<T>> split(Path path, boolean ordered) {
+		return tokenize(path, ordered)
+				.flatMap(chunk -> chunk.getResults().stream());
+	}
+
+	private static void closeQuietly(FileChannel channel, Exception cause) {
+		try {
+			channel.close();
+		} catch (IOException e) {
+			cause.addSuppressed(e);
+		}
+	}
+
+	private List<long[]> getChunkRanges(FileChannel channel) throws IOException {
+		long size = channel.size();
+		List<long[]> ranges = new ArrayList<>();
+		long start = 0;
+		while (start < size) {
+			long end = framing.align(channel, Math.min(start + chunkSize, size), size);
+			if (end <= start) {
+				end = size;
+			}
+			if (end - start > Integer.MAX_VALUE) {
+				throw new IllegalStateException(String.format(
+						"record at %d does not fit a mapped chunk", start));
+			}
+			ranges.add(new long[] { start, end });
+			start = end;
+		}
+		return ranges;
+	}
+
+	private TokenizationChunk<T> tokenizeChunk(FileChannel channel, long sequence, long[] range)
+			throws IOException {
+		ByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, range[0], range[1] - range[0]);
+		TokenizationDecoder decoder = TokenizationDecoder.of(charset);
+		List<TokenizationResult<T>> results = new ArrayList<>();
+		framing.forEachRecord(chunk, record -> results.add(plan.split(record, decoder)));
+		return new TokenizationChunk<>(sequence, range[0], results);
+	}
+
+	public int getChunkSize() {
+		return chunkSize;
+	}
+
+	public void setChunkSize(int chunkSize) {
+		this.chunkSize = chunkSize;
+	}
+
+	public ExecutorService getExecutor() {
+		return executor;
+	}
+
+	public void setExecutor(ExecutorService executor) {
+		this.executor = executor;
+	}
+
+	public int getMaxChunksInFlight() {
+		return maxChunksInFlight;
+	}
+
+	public void setMaxChunksInFlight(int maxChunksInFlight) {
+		this.maxChunksInFlight = maxChunksInFlight;
+	}
+
+	private abstract class ChunkIterator implements Iterator<TokenizationChunk<T>> {
+
+		private final FileChannel channel;
+
+		private final List<long[]> ranges;
+
+		private final Deque<Future<TokenizationChunk<T>>> pending = new ArrayDeque<>();
+
+		private int submitted;
+
+		private int consumed;
+
+		private ChunkIterator(FileChannel channel, List<long[]> ranges) {
+			this.channel = channel;
+			this.ranges = ranges;
+		}
+
+		protected abstract Future<TokenizationChunk<T>> submit(
+				Callable<TokenizationChunk<T>> task);
+
+		protected abstract Future<TokenizationChunk<T>> nextCompleted(
+				Deque<Future<TokenizationChunk<T>>> pending) throws InterruptedException;
+
+		@Override
+		public boolean hasNext() {
+			return consumed < ranges.size();
+		}
+
+		@Override
+		public TokenizationChunk<T> next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+
+			fill();
+			try {
+				TokenizationChunk<T> chunk = nextCompleted(pending).get();
+				consumed++;
+				return chunk;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException(e);
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof IOException) {
+					throw new UncheckedIOException((IOException) cause);
+				}
+				if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				}
+				throw new IllegalStateException(cause);
+			}
+		}
+
+		private void fill() {
+			while (submitted < ranges.size() && pending.size() < Math.max(1, maxChunksInFlight)) {
+				long sequence = submitted;
+				long[] range = ranges.get(submitted++);
+				pending.add(submit(() -> tokenizeChunk(channel, sequence, range)));
+			}
+		}
+
+		void close() {
+			pending.forEach(f -> f.cancel(true));
+			try {
+				channel.close();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+	}
+
+	private class OrderedChunkIterator extends ChunkIterator {
+
+		private OrderedChunkIterator(FileChannel channel, List<long[]> ranges) {
+			super(channel, ranges);
+		}
+
+		@Override
+		protected Future<TokenizationChunk<T>> submit(
+				Callable<TokenizationChunk<T>> task) {
+			return executor.submit(task);
+		}
+
+		@Override
+		protected Future<TokenizationChunk<T>> nextCompleted(
+				Deque<Future<TokenizationChunk<T>>> pending) {
+			return pending.poll();
+		}
+
+	}
+
+	private class UnorderedChunkIterator extends ChunkIterator {
+
+		private final CompletionService<TokenizationChunk<T>> completions =
+				new ExecutorCompletionService<>(executor);
+
+		private UnorderedChunkIterator(FileChannel channel, List<long[]> ranges) {
+			super(channel, ranges);
+		}
+
+		@Override
+		protected Future<TokenizationChunk<T>> submit(
+				Callable<TokenizationChunk<T>> task) {
+			return completions.submit(task);
+		}
+
+		@Override
+		protected Future<TokenizationChunk<T>> nextCompleted(
+				Deque<Future<TokenizationChunk<T>>> pending) throws InterruptedException {
+			Future<TokenizationChunk<T>> completed = completions.take();
+			pending.remove(completed);
+			return completed;
+		}
+
+	}
+
+}
@@ -0,0 +1,298 @@
+package org.dotspace.oofp.support.tokenizer;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+
+/**
+ * Reads COMP-3 packed decimal, signed zoned decimal and implied-scale digit fields without building
+ * intermediate strings, and packs values back into COMP-3 fields. Buffers are read from position to
+ * limit with absolute gets.
+ */
+public class PackedDecimals {
+
+	private static final int LONG_DIGITS = 18;
+
+	private PackedDecimals() {
+		super();
+	}
+
+	public static long unpackLong(ByteBuffer field) {
+		int start = field.position();
+		int end = field.limit();
+		requireDigits(start, end);
+		if ((end - start) * 2 - 1 > LONG_DIGITS) {
+			return unpackDecimal(field, 0).longValueExact();
+		}
+
+		long value = 0;
+		for (int i = start; i < end; i++) {
+			int b = field.get(i) & 0xFF;
+			value = value * 10 + digit(b >>> 4, field, i);
+			if (i < end - 1) {
+				value = value * 10 + digit(b & 0x0F, field, i);
+			} else if (isNegativePackedSign(b & 0x0F, field, i)) {
+				value = -value;
+			}
+		}
+		return value;
+	}
+
+	public static BigDecimal unpackDecimal(ByteBuffer field, int scale) {
+		int start = field.position();
+		int end = field.limit();
+		if ((end - start) * 2 - 1 <= LONG_DIGITS) {
+			return BigDecimal.valueOf(unpackLong(field), scale);
+		}
+
+		DigitAccumulator digits = new DigitAccumulator();
+		boolean negative = false;
+		for (int i = start; i < end; i++) {
+			int b = field.get(i) & 0xFF;
+			digits.add(digit(b >>> 4, field, i));
+			if (i < end - 1) {
+				digits.add(digit(b & 0x0F, field, i));
+			} else {
+				negative = isNegativePackedSign(b & 0x0F, field, i);
+			}
+		}
+		return digits.toDecimal(negative, scale);
+	}
+
+	public static long unzoneLong(ByteBuffer field) {
+		requireDigits(field.position(), field.limit());
+		int start = skipBlanks(field);
+		int end = field.limit();
+		if (end - start > LONG_DIGITS) {
+			return unzoneDecimal(field, 0).longValueExact();
+		}
+
+		long value = 0;
+		boolean negative = false;
+		for (int i = start; i < end; i++) {
+			int b = field.get(i) & 0xFF;
+			value = value * 10 + zonedDigit(b, field, i);
+			if (i == end - 1) {
+				negative = isNegativeZone(b);
+			}
+		}
+		return negative ? -value : value;
+	}
+
+	public static BigDecimal unzoneDecimal(ByteBuffer field, int scale) {
+		int start = skipBlanks(field);
+		int end = field.limit();
+		if (end - start <= LONG_DIGITS) {
+			return BigDecimal.valueOf(unzoneLong(field), scale);
+		}
+
+		DigitAccumulator digits = new DigitAccumulator();
+		for (int i = start; i < end; i++) {
+			digits.add(zonedDigit(field.get(i) & 0xFF, field, i));
+		}
+		return digits.toDecimal(end > start && isNegativeZone(field.get(end - 1) & 0xFF), scale);
+	}
+
+	public static void packLong(long value, ByteBuffer field) {
+		if (value == Long.MIN_VALUE) {
+			packDecimal(BigDecimal.valueOf(value), 0, field);
+			return;
+		}
+
+		int start = field.position();
+		int end = field.limit();
+		if (end <= start) {
+			throw new IllegalArgumentException("no room for a packed decimal");
+		}
+
+		long magnitude = Math.abs(value);
+		field.put(end - 1, (byte) ((magnitude % 10) << 4 | (value < 0 ? 0x0D : 0x0C)));
+		magnitude /= 10;
+		for (int i = end - 2; i >= start; i--) {
+			long low = magnitude % 10;
+			magnitude /= 10;
+			field.put(i, (byte) ((magnitude % 10) << 4 | low));
+			magnitude /= 10;
+		}
+
+		if (magnitude != 0) {
+			throw new IllegalArgumentException(String.format(
+					"%d does not fit %d packed bytes", value, end - start));
+		}
+		field.position(end);
+	}
+
+	public static void packDecimal(BigDecimal value, int scale, ByteBuffer field) {
+		BigInteger unscaled = value.setScale(scale).unscaledValue();
+		if (unscaled.bitLength() < Long.SIZE) {
+			packLong(unscaled.longValue(), field);
+			return;
+		}
+
+		int start = field.position();
+		int end = field.limit();
+		if (end <= start) {
+			throw new IllegalArgumentException("no room for a packed decimal");
+		}
+
+		String digits = unscaled.abs().toString();
+		int d = digits.length() - 1;
+		field.put(end - 1, (byte) ((digits.charAt(d--) - '0') << 4 
+				| (unscaled.signum() < 0 ? 0x0D : 0x0C)));
+		for (int i = end - 2; i >= start; i--) {
+			int low = d >= 0 ? digits.charAt(d--) - '0' : 0;
+			int high = d >= 0 ? digits.charAt(d--) - '0' : 0;
+			field.put(i, (byte) (high << 4 | low));
+		}
+
+		if (d >= 0) {
+			throw new IllegalArgumentException(String.format(
+					"%s does not fit %d packed bytes", value, end - start));
+		}
+		field.position(end);
+	}
+
+	public static long parseImpliedLong(CharSequence text) {
+		int end = text.length();
+		int i = 0;
+		while (i < end && text.charAt(i) == ' ') {
+			i++;
+		}
+
+		boolean negative = false;
+		if (i < end && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+			negative = text.charAt(i) == '-';
+			i++;
+		}
+
+		while (end > i && text.charAt(end - 1) == ' ') {
+			end--;
+		}
+
+		if (i == end) {
+			throw new NumberFormatException(String.format("no digits in \"%s\"", text));
+		}
+
+		long value = 0;
+		for (; i < end; i++) {
+			char ch = text.charAt(i);
+			if (ch < '0' || ch > '9') {
+				throw new NumberFormatException(String.format(
+						"invalid digit '%s' in \"%s\"", ch, text));
+			}
+			value = Math.addExact(Math.multiplyExact(value, 10), ch - '0');
+		}
+		return negative ? -value : value;
+	}
+
+	public static BigDecimal parseImpliedDecimal(CharSequence text, int scale) {
+		return BigDecimal.valueOf(parseImpliedLong(text), scale);
+	}
+
+	private static void requireDigits(int start, int end) {
+		if (start >= end) {
+			throw new NumberFormatException("no digits in an empty field");
+		}
+	}
+
+	private static int skipBlanks(ByteBuffer field) {
+		int i = field.position();
+		while (i < field.limit() - 1 && isBlank(field.get(i) & 0xFF)) {
+			i++;
+		}
+		return i;
+	}
+
+	private static boolean isBlank(int b) {
+		return b == 0x20 || b == 0x40 || b == 0x00;
+	}
+
+	private static int digit(int nibble, ByteBuffer field, int index) {
+		if (nibble > 9) {
+			throw invalidByte(field, index);
+		}
+		return nibble;
+	}
+
+	private static boolean isNegativePackedSign(int nibble, ByteBuffer field, int index) {
+		switch (nibble) {
+		case 0x0B:
+		case 0x0D:
+			return true;
+		case 0x0A:
+		case 0x0C:
+		case 0x0E:
+		case 0x0F:
+			return false;
+		default:
+			throw invalidByte(field, index);
+		}
+	}
+
+	private static int zonedDigit(int b, ByteBuffer field, int index) {
+		if (b == '{' || b == '}') {
+			return 0;
+		}
+		if (b >= 'A' && b <= 'I') {
+			return b - 'A' + 1;
+		}
+		if (b >= 'J' && b <= 'R') {
+			return b - 'J' + 1;
+		}
+		if (isBlank(b)) {
+			return 0;
+		}
+
+		int zone = b >>> 4;
+		if (zone == 0x3 || zone == 0x7 || zone >= 0xC) {
+			return digit(b & 0x0F, field, index);
+		}
+		throw invalidByte(field, index);
+	}
+
+	private static boolean isNegativeZone(int b) {
+		if (b == '{') {
+			return false;
+		}
+		if (b == '}' || (b >= 'J' && b <= 'R')) {
+			return true;
+		}
+
+		int zone = b >>> 4;
+		return zone == 0x7 || zone == 0xD;
+	}
+
+	private static NumberFormatException invalidByte(ByteBuffer field, int index) {
+		return new NumberFormatException(String.format(
+				"invalid byte 0x%02X at offset %d", field.get(index) & 0xFF, index - field.position()));
+	}
+
+	private static class DigitAccumulator {
+
+		private BigInteger value = BigInteger.ZERO;
+
+		private long pending;
+
+		private int pendingDigits;
+
+		private void add(int digit) {
+			pending = pending * 10 + digit;
+			if (++pendingDigits == LONG_DIGITS) {
+				flush();
+			}
+		}
+
+		private void flush() {
+			value = value.multiply(BigInteger.TEN.pow(pendingDigits)).add(BigInteger.valueOf(pending));
+			pending = 0;
+			pendingDigits = 0;
+		}
+
+		private BigDecimal toDecimal(boolean negative, int scale) {
+			flush();
+			return new BigDecimal(negative ? value.negate() : value, scale);
+		}
+
+	}
+
+}
@@ -0,0 +1,25 @@
+package org.dotspace.oofp.support.tokenizer;
+
+import java.nio.ByteBuffer;
+import java.util.function.Function;
+
+/**
+ * A value mapper that reads the raw field bytes. Byte-mode tokenization hands it the undecoded
+ * field; text-mode tokenization falls back to {@link #apply(String)}, which treats each char as one
+ * byte and so is only meaningful for records decoded as ISO-8859-1. The buffer handed over is
+ * reused for the next field, so it must not be kept.
+ */
+public interface TokenizationByteMapper extends Function<String, Object> {
+
+	public Object applyBytes(ByteBuffer field);
+
+	@Override
+	public default Object apply(String text) {
+		byte[] bytes = new byte[text.length()];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = (byte) text.charAt(i);
+		}
+		return applyBytes(ByteBuffer.wrap(bytes));
+	}
+
+}
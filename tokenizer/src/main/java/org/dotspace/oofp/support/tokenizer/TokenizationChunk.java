@@ -0,0 +1,31 @@
+package org.dotspace.oofp.support.tokenizer;
+
+import java.util.List;
+
+public class TokenizationChunk<T> {
+
+	private final long sequence;
+
+	private final long position;
+
+	private final List<TokenizationResult<T>> results;
+
+	public TokenizationChunk(long sequence, long position, List<TokenizationResult<T>> results) {
+		this.sequence = sequence;
+		this.position = position;
+		this.results = results;
+	}
+
+	public long getSequence() {
+		return sequence;
+	}
+
+	public long getPosition() {
+		return position;
+	}
+
+	public List<TokenizationResult<T>> getResults() {
+		return results;
+	}
+
+}
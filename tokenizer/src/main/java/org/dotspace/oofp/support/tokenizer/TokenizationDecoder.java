@@ -0,0 +1,47 @@
+package org.dotspace.oofp.support.tokenizer;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * Decodes byte-sliced fields with one reused {@link CharsetDecoder}; not thread-safe, so use one
+ * instance per thread.
+ */
+public class TokenizationDecoder {
+
+	private final CharsetDecoder decoder;
+
+	private CharBuffer chars = CharBuffer.allocate(64);
+
+	private TokenizationDecoder(CharsetDecoder decoder) {
+		this.decoder = decoder;
+	}
+
+	public static TokenizationDecoder of(Charset charset) {
+		return new TokenizationDecoder(charset.newDecoder()
+				.onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE));
+	}
+
+	public Charset getCharset() {
+		return decoder.charset();
+	}
+
+	public String decode(ByteBuffer bytes) {
+		int maxLength = (int) Math.ceil(bytes.remaining() * (double) decoder.maxCharsPerByte());
+		if (chars.capacity() < maxLength) {
+			chars = CharBuffer.allocate(maxLength);
+		}
+
+		chars.clear();
+		decoder.reset();
+		decoder.decode(bytes, chars, true);
+		decoder.flush(chars);
+		chars.flip();
+		return chars.toString();
+	}
+
+}
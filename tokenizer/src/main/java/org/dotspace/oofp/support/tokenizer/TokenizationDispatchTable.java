@@ -0,0 +1,163 @@
+package org.dotspace.oofp.support.tokenizer;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Discriminator lookup of one tokenization mapper, built once from its configured map. Integral
+ * codes in a dense range are looked up by array index, everything else by its text; an integral
+ * key and its canonical text ({@code 1} and {@code "1"}) select the same layout whichever type the
+ * value mapper produces. The result keys ({@code name:code}) are built here rather than per record.
+ */
+public class TokenizationDispatchTable {
+
+	private static final int MAX_SPARSE_SLOTS = 1024;
+
+	private final String tokenizationMapperName;
+
+	private final long minCode;
+
+	private final Dispatch[] byCode;
+
+	private final Map<String, Dispatch> byText = new HashMap<>();
+
+	private final FixedLengthTokenizationActions<?> defaultActions;
+
+	public TokenizationDispatchTable(String tokenizationMapperName,
+			Map<?, FixedLengthTokenizationActions<?>> tokenizationActions,
+			FixedLengthTokenizationActions<?> defaultActions) {
+		this.tokenizationMapperName = tokenizationMapperName;
+		this.defaultActions = defaultActions;
+
+		Map<Long, Dispatch> codes = new HashMap<>();
+		for (Map.Entry<?, FixedLengthTokenizationActions<?>> e : tokenizationActions.entrySet()) {
+			if (null == e.getKey() || null == e.getValue()) {
+				continue;
+			}
+
+			String text = e.getKey().toString();
+			Dispatch dispatch = new Dispatch(e.getValue(),
+					tokenizationMapperName.concat(":").concat(text));
+			putUnique(byText, text, dispatch);
+
+			Long code = toCode(e.getKey());
+			if (null != code) {
+				putUnique(codes, code, dispatch);
+			}
+		}
+
+		long min = Long.MAX_VALUE;
+		long max = Long.MIN_VALUE;
+		for (Long code : codes.keySet()) {
+			min = Math.min(min, code);
+			max = Math.max(max, code);
+		}
+
+		if (codes.isEmpty() || max - min >= Math.max(MAX_SPARSE_SLOTS, codes.size() * 4L)) {
+			this.minCode = 0;
+			this.byCode = new Dispatch[0];
+			return;
+		}
+
+		this.minCode = min;
+		this.byCode = new Dispatch[(int) (max - min + 1)];
+		for (Map.Entry<Long, Dispatch> e : codes.entrySet()) {
+			byCode[(int) (e.getKey() - min)] = e.getValue();
+		}
+	}
+
+	private static <K> void putUnique(Map<K, Dispatch> dispatches, K key, Dispatch dispatch) {
+		Dispatch existing = dispatches.put(key, dispatch);
+		if (null != existing && existing.tokenizationActions != dispatch.tokenizationActions) {
+			throw new IllegalArgumentException(String.format(
+					"discriminator %s is mapped to more than one tokenization actions", key));
+		}
+	}
+
+	public FixedLengthTokenizationActions<?> getTokenizationActions(Object value) {
+		Dispatch dispatch = find(value);
+		return null != dispatch ? dispatch.tokenizationActions : defaultActions;
+	}
+
+	public String getResultKey(Object value) {
+		Dispatch dispatch = find(value);
+		return null != dispatch
+				? dispatch.resultKey
+				: tokenizationMapperName.concat(":").concat(String.valueOf(value));
+	}
+
+	Dispatch dispatch(Object value) {
+		Dispatch dispatch = find(value);
+		if (null != dispatch) {
+			return dispatch;
+		}
+
+		if (null == defaultActions) {
+			throw new IllegalArgumentException(String.format(
+					"no tokenization actions of %s for discriminator %s",
+					tokenizationMapperName, value));
+		}
+		return new Dispatch(defaultActions, getResultKey(value));
+	}
+
+	private Dispatch find(Object value) {
+		if (value instanceof Integer || value instanceof Long || value instanceof Short
+				|| value instanceof Byte) {
+			long index = ((Number) value).longValue() - minCode;
+			if (index >= 0 && index < byCode.length) {
+				Dispatch dispatch = byCode[(int) index];
+				if (null != dispatch) {
+					return dispatch;
+				}
+			}
+		}
+
+		return null != value ? byText.get(value.toString()) : null;
+	}
+
+	private static Long toCode(Object key) {
+		if (key instanceof Integer || key instanceof Long || key instanceof Short
+				|| key instanceof Byte) {
+			return ((Number) key).longValue();
+		}
+		if (key instanceof BigInteger) {
+			return ((BigInteger) key).bitLength() < Long.SIZE ? ((BigInteger) key).longValue() : null;
+		}
+		if (key instanceof String) {
+			try {
+				long code = Long.parseLong((String) key);
+				return Long.toString(code).equals(key) ? code : null;
+			} catch (NumberFormatException e) {
+				return null;
+			}
+		}
+		return null;
+	}
+
+	public String getTokenizationMapperName() {
+		return tokenizationMapperName;
+	}
+
+	static class Dispatch {
+
+		private final FixedLengthTokenizationActions<?> tokenizationActions;
+
+		private final String resultKey;
+
+		private Dispatch(FixedLengthTokenizationActions<?> tokenizationActions, String resultKey) {
+			this.tokenizationActions = tokenizationActions;
+			this.resultKey = resultKey;
+		}
+
+		FixedLengthTokenizationActions<?> getTokenizationActions() {
+			return tokenizationActions;
+		}
+
+		String getResultKey() {
+			return resultKey;
+		}
+
+	}
+
+}
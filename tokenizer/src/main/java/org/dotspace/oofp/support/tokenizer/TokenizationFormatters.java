@@ -0,0 +1,204 @@
+package org.dotspace.oofp.support.tokenizer;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.dotspace.oofp.support.ExpressionEvaluations;
+import org.dotspace.oofp.util.Associable;
+
+/**
+ * The writing counterpart of {@link TokenizationFunctors}: every method has the name and arguments of
+ * a value mapper, so the {@code valueMapperExpression} of a tokenization action evaluated against
+ * this root yields the formatter that produces what the mapper reads.
+ */
+public class TokenizationFormatters implements Associable<ExpressionEvaluations> {
+
+	private static final String NEGATIVE_OVERPUNCH = "}JKLMNOPQR";
+
+	private static final String[] TRUE_CANDIDATES = { "Y", "T", "1", "y", "t" };
+
+	private static final String[] FALSE_CANDIDATES = { "N", "F", "0", "n", "f", " " };
+
+	private ExpressionEvaluations expressions;
+
+	public FixedLengthFieldFormatter getText() {
+		return (value, length, text) -> text.append(value);
+	}
+
+	public FixedLengthFieldFormatter parseLongValue() {
+		return (value, length, text) -> appendSigned(value, 0, length, text);
+	}
+
+	public FixedLengthFieldFormatter parseIntValue() {
+		return (value, length, text) -> appendSigned(value, 0, length, text);
+	}
+
+	public FixedLengthFieldFormatter parseDecimalValue(int franctionLength) {
+		return (value, length, text) -> appendSigned(value, franctionLength, length, text);
+	}
+
+	public FixedLengthFieldFormatter parseImpliedDecimal(int scale) {
+		return (value, length, text) -> appendSigned(value, scale, length, text);
+	}
+
+	public FixedLengthByteFormatter parsePackedLong() {
+		return (value, field) -> PackedDecimals.packDecimal(toDecimal(value), 0, field);
+	}
+
+	public FixedLengthByteFormatter parsePackedDecimal(int scale) {
+		return (value, field) -> PackedDecimals.packDecimal(toDecimal(value), scale, field);
+	}
+
+	public FixedLengthFieldFormatter parseZonedLong() {
+		return (value, length, text) -> appendZoned(value, 0, length, text);
+	}
+
+	public FixedLengthFieldFormatter parseZonedDecimal(int scale) {
+		return (value, length, text) -> appendZoned(value, scale, length, text);
+	}
+
+	/**
+	 * A {@link Date} is formatted with the {@link SimpleDateFormat} pattern the reading mapper parses
+	 * with, on a format confined to the formatting thread; a {@link TemporalAccessor} with the
+	 * {@link DateTimeFormatter} of the same pattern.
+	 */
+	public FixedLengthFieldFormatter parseDatetime(String dateFormat) {
+		SimpleDateFormat format = new SimpleDateFormat(dateFormat);
+		ThreadLocal<DateFormat> dateFormats = ThreadLocal.withInitial(
+				() -> (DateFormat) format.clone());
+		AtomicReference<DateTimeFormatter> temporalFormatter = new AtomicReference<>();
+		return (value, length, text) -> {
+			if (value instanceof Date) {
+				text.append(dateFormats.get().format((Date) value));
+				return;
+			}
+
+			DateTimeFormatter formatter = temporalFormatter.get();
+			if (null == formatter) {
+				formatter = DateTimeFormatter.ofPattern(dateFormat);
+				temporalFormatter.set(formatter);
+			}
+			formatter.formatTo((TemporalAccessor) value, text);
+		};
+	}
+
+	public FixedLengthFieldFormatter parseBoolean(String expression) {
+		String trueText = findBooleanText(expression, TRUE_CANDIDATES, true);
+		String falseText = findBooleanText(expression, FALSE_CANDIDATES, false);
+		return (value, length, text) -> text.append(
+				Boolean.TRUE.equals(value) ? trueText : falseText);
+	}
+
+	private String findBooleanText(String expression, String[] candidates, boolean expected) {
+		for (String candidate : candidates) {
+			Boolean result = expressions.parse(expression).getValue(Boolean.class, candidate);
+			if (null != result && result.booleanValue() == expected) {
+				return candidate;
+			}
+		}
+
+		throw new IllegalArgumentException(String.format(
+				"no text of %s reads as %s", expression, expected));
+	}
+
+	private static void appendSigned(Object value, int scale, int length, StringBuilder text) {
+		Object unscaled = toUnscaled(value, scale);
+		boolean negative = isNegative(unscaled);
+		if (negative) {
+			text.append('-');
+		}
+		appendDigits(unscaled, length - (negative ? 1 : 0), value, text);
+	}
+
+	private static void appendZoned(Object value, int scale, int length, StringBuilder text) {
+		Object unscaled = toUnscaled(value, scale);
+		appendDigits(unscaled, length, value, text);
+		if (isNegative(unscaled)) {
+			int last = text.length() - 1;
+			text.setCharAt(last, NEGATIVE_OVERPUNCH.charAt(text.charAt(last) - '0'));
+		}
+	}
+
+	private static void appendDigits(Object unscaled, int width, Object value, StringBuilder text) {
+		if (unscaled instanceof Long) {
+			long magnitude = Math.abs((Long) unscaled);
+			int digits = 1;
+			for (long rest = magnitude / 10; rest > 0; rest /= 10) {
+				digits++;
+			}
+			checkWidth(digits, width, value);
+			padZeros(width - digits, text);
+			text.append(magnitude);
+			return;
+		}
+
+		String digits = ((BigInteger) unscaled).abs().toString();
+		checkWidth(digits.length(), width, value);
+		padZeros(width - digits.length(), text);
+		text.append(digits);
+	}
+
+	private static void checkWidth(int digits, int width, Object value) {
+		if (digits > width) {
+			throw new IllegalArgumentException(String.format(
+					"%s does not fit %d digits", value, width));
+		}
+	}
+
+	private static void padZeros(int count, StringBuilder text) {
+		for (int i = 0; i < count; i++) {
+			text.append('0');
+		}
+	}
+
+	private static boolean isNegative(Object unscaled) {
+		return unscaled instanceof Long
+				? (Long) unscaled < 0
+				: ((BigInteger) unscaled).signum() < 0;
+	}
+
+	private static Object toUnscaled(Object value, int scale) {
+		if (value instanceof Long || value instanceof Integer || value instanceof Short
+				|| value instanceof Byte) {
+			long unscaled = ((Number) value).longValue();
+			if (scale >= 0 && scale <= 18 && unscaled != Long.MIN_VALUE) {
+				long factor = 1;
+				for (int i = 0; i < scale; i++) {
+					factor *= 10;
+				}
+				if (Math.abs(unscaled) <= Long.MAX_VALUE / factor) {
+					return unscaled * factor;
+				}
+			}
+		}
+
+		BigInteger unscaled = toDecimal(value).setScale(scale).unscaledValue();
+		return unscaled.bitLength() < Long.SIZE - 1 ? (Object) unscaled.longValue() : unscaled;
+	}
+
+	private static BigDecimal toDecimal(Object value) {
+		if (value instanceof BigDecimal) {
+			return (BigDecimal) value;
+		}
+		if (value instanceof BigInteger) {
+			return new BigDecimal((BigInteger) value);
+		}
+		if (value instanceof Long || value instanceof Integer || value instanceof Short
+				|| value instanceof Byte) {
+			return BigDecimal.valueOf(((Number) value).longValue());
+		}
+		return new BigDecimal(value.toString().trim());
+	}
+
+	@Override
+	public void associate(ExpressionEvaluations expressions) {
+		this.expressions = expressions;
+	}
+
+}
@@ -0,0 +1,192 @@
+package org.dotspace.oofp.support.tokenizer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+public abstract class TokenizationFraming {
+
+	private static final int ALIGNMENT_WINDOW = 8192;
+
+	public static TokenizationFraming lines() {
+		return new LineFraming();
+	}
+
+	/**
+	 * Records of exactly {@code recordLength} characters or bytes with no separator between them. A
+	 * remainder after the last record made of line terminators only is skipped, any other short
+	 * remainder fails as an incomplete record.
+	 */
+	public static TokenizationFraming fixedLength(int recordLength) {
+		if (recordLength <= 0) {
+			throw new IllegalArgumentException("record length must be positive: " + recordLength);
+		}
+		return new FixedLengthFraming(recordLength);
+	}
+
+	public abstract Stream<String> records(Reader reader);
+
+	abstract long align(FileChannel channel, long position, long size) throws IOException;
+
+	abstract void forEachRecord(ByteBuffer chunk, Consumer<ByteBuffer> action);
+
+	private static class LineFraming extends TokenizationFraming {
+
+		@Override
+		public Stream<String> records(Reader reader) {
+			BufferedReader bufferedReader = reader instanceof BufferedReader
+					? (BufferedReader) reader
+					: new BufferedReader(reader);
+			return bufferedReader.lines();
+		}
+
+		@Override
+		long align(FileChannel channel, long position, long size) throws IOException {
+			if (position <= 0 || position >= size) {
+				return Math.max(0, Math.min(position, size));
+			}
+
+			ByteBuffer window = ByteBuffer.allocate(ALIGNMENT_WINDOW);
+			long scanned = position - 1;
+			while (scanned < size) {
+				window.clear();
+				int read = channel.read(window, scanned);
+				if (read <= 0) {
+					break;
+				}
+				for (int i = 0; i < read; i++) {
+					if (window.get(i) == '\n') {
+						return scanned + i + 1;
+					}
+				}
+				scanned += read;
+			}
+			return size;
+		}
+
+		@Override
+		void forEachRecord(ByteBuffer chunk, Consumer<ByteBuffer> action) {
+			int start = chunk.position();
+			int end = chunk.limit();
+			for (int i = start; i < end; i++) {
+				if (chunk.get(i) == '\n') {
+					action.accept(slice(chunk, start, i));
+					start = i + 1;
+				}
+			}
+			if (start < end) {
+				action.accept(slice(chunk, start, end));
+			}
+		}
+
+		private ByteBuffer slice(ByteBuffer chunk, int start, int end) {
+			int recordEnd = end > start && chunk.get(end - 1) == '\r' ? end - 1 : end;
+			ByteBuffer record = chunk.duplicate();
+			record.limit(recordEnd);
+			record.position(start);
+			return record.slice();
+		}
+
+	}
+
+	private static class FixedLengthFraming extends TokenizationFraming {
+
+		private final int recordLength;
+
+		private FixedLengthFraming(int recordLength) {
+			this.recordLength = recordLength;
+		}
+
+		@Override
+		public Stream<String> records(Reader reader) {
+			Spliterator<String> records = new Spliterators.AbstractSpliterator<String>(
+					Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+
+				private final char[] buffer = new char[recordLength];
+
+				@Override
+				public boolean tryAdvance(Consumer<? super String> action) {
+					int filled = fill();
+					if (filled < recordLength && isTerminators(filled)) {
+						return false;
+					}
+					if (filled < recordLength) {
+						throw incomplete(filled);
+					}
+					action.accept(new String(buffer, 0, filled));
+					return true;
+				}
+
+				private boolean isTerminators(int filled) {
+					for (int i = 0; i < filled; i++) {
+						if (!isLineTerminator(buffer[i])) {
+							return false;
+						}
+					}
+					return true;
+				}
+
+				private int fill() {
+					try {
+						int filled = 0;
+						while (filled < recordLength) {
+							int read = reader.read(buffer, filled, recordLength - filled);
+							if (read < 0) {
+								break;
+							}
+							filled += read;
+						}
+						return filled;
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				}
+
+			};
+			return StreamSupport.stream(records, false);
+		}
+
+		@Override
+		long align(FileChannel channel, long position, long size) throws IOException {
+			long aligned = (position + recordLength - 1) / recordLength * recordLength;
+			return Math.max(0, Math.min(aligned, size));
+		}
+
+		@Override
+		void forEachRecord(ByteBuffer chunk, Consumer<ByteBuffer> action) {
+			int end = chunk.limit();
+			int start = chunk.position();
+			for (; start + recordLength <= end; start += recordLength) {
+				ByteBuffer record = chunk.duplicate();
+				record.limit(start + recordLength);
+				record.position(start);
+				action.accept(record.slice());
+			}
+
+			for (int i = start; i < end; i++) {
+				if (!isLineTerminator((char) chunk.get(i))) {
+					throw incomplete(end - start);
+				}
+			}
+		}
+
+		private IllegalStateException incomplete(int length) {
+			return new IllegalStateException(String.format(
+					"incomplete last record of length %d, record length %d", length, recordLength));
+		}
+
+		private static boolean isLineTerminator(char c) {
+			return '\n' == c || '\r' == c;
+		}
+
+	}
+
+}
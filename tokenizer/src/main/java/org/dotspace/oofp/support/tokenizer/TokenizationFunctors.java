@@ -34,12 +34,32 @@ public class TokenizationFunctors implements Associable<ExpressionEvaluations> {
 	}
 	
 	public Function<String, BigDecimal> parseDecimalValue(int franctionLength) {
+		BigDecimal divisor = BigDecimal.TEN.pow(franctionLength);
 		return s -> {
 			BigDecimal value = new BigDecimal(s);
-			BigDecimal divisor = BigDecimal.TEN.pow(franctionLength);
 			return value.divide(divisor);
 		};
 	}
+
+	public Function<String, BigDecimal> parseImpliedDecimal(int scale) {
+		return s -> PackedDecimals.parseImpliedDecimal(s, scale);
+	}
+
+	public TokenizationByteMapper parsePackedLong() {
+		return PackedDecimals::unpackLong;
+	}
+
+	public TokenizationByteMapper parsePackedDecimal(int scale) {
+		return field -> PackedDecimals.unpackDecimal(field, scale);
+	}
+
+	public TokenizationByteMapper parseZonedLong() {
+		return PackedDecimals::unzoneLong;
+	}
+
+	public TokenizationByteMapper parseZonedDecimal(int scale) {
+		return field -> PackedDecimals.unzoneDecimal(field, scale);
+	}
 	
 	public Function<String, Date> parseDatetime(String dateFormat) {
 		return s -> {
@@ -1,25 +1,56 @@
 package org.dotspace.oofp.support.test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.dotspace.oofp.support.FixedLengthTokenizer;
 import org.dotspace.oofp.support.FixedLengthTokenizers;
 import org.dotspace.oofp.support.builder.GeneralBuilders;
 import org.dotspace.oofp.support.builder.writer.GeneralBuildingWriters;
+import org.dotspace.oofp.support.expression.ExpressionDependencies;
 import org.dotspace.oofp.support.test.dto.TestMessage;
+import org.dotspace.oofp.support.test.tokenizer.Graduate;
 import org.dotspace.oofp.support.test.tokenizer.PojoMappingCollectorTestPojo;
 import org.dotspace.oofp.support.test.tokenizer.Student;
 import org.dotspace.oofp.support.test.tokenizer.TokenizerTestInfo;
 import org.dotspace.oofp.support.test.tokenizer.Worker;
 import org.dotspace.oofp.support.tokenizer.FixedLengthTokenizationAction;
 import org.dotspace.oofp.support.tokenizer.FixedLengthTokenizationActions;
+import org.dotspace.oofp.support.tokenizer.FixedLengthTokenizationPlan;
+import org.dotspace.oofp.support.tokenizer.FixedLengthTokenizersImpl;
+import org.dotspace.oofp.support.tokenizer.FixedLengthWriter;
+import org.dotspace.oofp.support.tokenizer.MappedFileTokenizer;
+import org.dotspace.oofp.support.tokenizer.TokenizationChunk;
+import org.dotspace.oofp.support.tokenizer.TokenizationDecoder;
+import org.dotspace.oofp.support.tokenizer.TokenizationFormatters;
+import org.dotspace.oofp.support.tokenizer.TokenizationFraming;
+import org.dotspace.oofp.support.tokenizer.TokenizationFunctors;
 import org.dotspace.oofp.support.tokenizer.TokenizationResult;
 import org.dotspace.oofp.util.functional.BiConsumers;
 import org.dotspace.oofp.util.functional.Suppliers;
@@ -62,6 +93,55 @@ public class FixedLengthTokenizerTest {
 		assertTrue(17L == tokenizer.getTotalSize());
 	}
 
+	@Test
+	public void testCompiledPlanReusedAcrossSplits() {
+		FixedLengthTokenizer<?, PojoMappingCollectorTestPojo> tokenizer = 
+				fixedLengthTokenizers.tokenize(PojoMappingCollectorTestPojo::new)
+				.add("name", Object::toString, 6)
+				.add("age", Integer::parseInt, 2);
+		
+		FixedLengthTokenizationPlan<PojoMappingCollectorTestPojo> plan = tokenizer.compile();
+		assertSame(plan, tokenizer.compile());
+		assertEquals(8L, plan.getTotalSize());
+		
+		PojoMappingCollectorTestPojo first = plan.split("myName22").getRoot();
+		PojoMappingCollectorTestPojo second = plan.split("yrName33").getRoot();
+		assertEquals("myName", first.getName());
+		assertEquals("yrName", second.getName());
+		assertEquals(33, second.getAge().intValue());
+		
+		tokenizer.add("merried", this::isYOrT, 1);
+		assertNotSame(plan, tokenizer.compile());
+		assertTrue(tokenizer.split("myName22y").getRoot().getMerried());
+	}
+
+	@Test
+	public void testProjectedPlanDecodesReadFieldsOnly() {
+		AtomicInteger ageParses = new AtomicInteger();
+		FixedLengthTokenizer<?, PojoMappingCollectorTestPojo> tokenizer = 
+				fixedLengthTokenizers.tokenize(PojoMappingCollectorTestPojo::new)
+				.add("name", Object::toString, 6)
+				.add("age", text -> {
+					ageParses.incrementAndGet();
+					return Integer.parseInt(text);
+				}, 2)
+				.add("merried", this::isYOrT, 1);
+		
+		ExpressionDependencies dependencies = ExpressionDependencies.union(
+				Arrays.asList("name + '!'", "merried ? 'Y' : 'N'"));
+		assertEquals(new HashSet<>(Arrays.asList("name", "merried")), 
+				dependencies.getPropertyPaths());
+		
+		FixedLengthTokenizationPlan<PojoMappingCollectorTestPojo> plan = tokenizer.compile()
+				.project(dependencies);
+		PojoMappingCollectorTestPojo pojo = plan.split("myName22y").getRoot();
+		assertEquals("myName", pojo.getName());
+		assertNull(pojo.getAge());
+		assertTrue(pojo.getMerried());
+		assertEquals(0, ageParses.get());
+		assertEquals(9L, plan.getTotalSize());
+	}
+
 	private boolean isYOrT(String s) {
 		return Arrays.asList("Y", "T").stream()
 				.anyMatch(x -> x.equals(s.toUpperCase()));
@@ -295,4 +375,342 @@ public class FixedLengthTokenizerTest {
 		assertTrue(!worker.isMerried());
 		
 	}
+
+	@Test
+	public void testTokenizeDetailReusesCompiledLayouts() {
+		FixedLengthTokenizationPlan<TokenizerTestInfo> plan = testFixedLengthTokenizationActions
+				.compile(fixedLengthTokenizers);
+		
+		testFixedLengthTokenizationActions.tokenize(fixedLengthTokenizers, "myName7890202201010mySchool90001");
+		
+		assertSame(plan, testFixedLengthTokenizationActions.compile(fixedLengthTokenizers));
+		
+		TokenizationResult<TokenizerTestInfo> result = plan
+				.split("yourName90202202021yourJob89012345n030");
+		Worker worker = (Worker) result.findMappingItem("role:1");
+		assertEquals("yourJob89012345", worker.getJob());
+		assertEquals(38L, result.getTokenizedTextSize().longValue());
+	}
+
+	@Test
+	public void testTokenizeStreamOfRecords() throws IOException {
+		FixedLengthTokenizer<?, PojoMappingCollectorTestPojo> tokenizer = 
+				fixedLengthTokenizers.tokenize(PojoMappingCollectorTestPojo::new)
+				.add("name", Object::toString, 6)
+				.add("age", Integer::parseInt, 2);
+		
+		List<String> names = tokenizer
+				.split(new StringReader("myName22\r\nyrName33\n"), TokenizationFraming.lines())
+				.map(r -> r.getRoot().getName())
+				.collect(Collectors.toList());
+		assertEquals(Arrays.asList("myName", "yrName"), names);
+		
+		List<Integer> ages = tokenizer
+				.split(new StringReader("myName22yrName33"), TokenizationFraming.fixedLength(8))
+				.map(r -> r.getRoot().getAge())
+				.collect(Collectors.toList());
+		assertEquals(Arrays.asList(22, 33), ages);
+		
+		Path path = Files.createTempFile("tokenizer", ".txt");
+		try {
+			Files.write(path, "myName22\nyrName33\nhsName44".getBytes(StandardCharsets.UTF_8));
+			try (Stream<TokenizationResult<PojoMappingCollectorTestPojo>> results = tokenizer
+					.split(path, StandardCharsets.UTF_8, TokenizationFraming.lines())) {
+				assertEquals(3L, results.count());
+			}
+		} finally {
+			Files.delete(path);
+		}
+	}
+
+	@Test
+	public void testFixedLengthFramingSkipsTrailingTerminatorsOnly() throws IOException {
+		FixedLengthTokenizationPlan<PojoMappingCollectorTestPojo> plan = fixedLengthTokenizers
+				.tokenize(PojoMappingCollectorTestPojo::new)
+				.add("name", Object::toString, 6)
+				.add("age", Integer::parseInt, 2)
+				.compile();
+		
+		assertEquals(2L, plan.split(new StringReader("myName22yrName33\r\n"), 
+				TokenizationFraming.fixedLength(8)).count());
+		try {
+			plan.split(new StringReader("myName22yrNa"), TokenizationFraming.fixedLength(8))
+					.count();
+			fail("a short last record must not be tokenized");
+		} catch (IllegalStateException e) {
+			assertTrue(e.getMessage().contains("length 4"));
+		}
+		
+		Path path = Files.createTempFile("tokenizer", ".txt");
+		try {
+			MappedFileTokenizer<PojoMappingCollectorTestPojo> tokenizer = new MappedFileTokenizer<>(
+					plan, StandardCharsets.US_ASCII, TokenizationFraming.fixedLength(8));
+			
+			Files.write(path, "myName22yrName33\n".getBytes(StandardCharsets.US_ASCII));
+			try (Stream<TokenizationResult<PojoMappingCollectorTestPojo>> results = tokenizer
+					.split(path, false)) {
+				assertEquals(2L, results.count());
+			}
+			
+			Files.write(path, "myName22yrName3".getBytes(StandardCharsets.US_ASCII));
+			try (Stream<TokenizationResult<PojoMappingCollectorTestPojo>> results = tokenizer
+					.split(path, false)) {
+				results.count();
+				fail("a short last record must not be tokenized");
+			} catch (IllegalStateException e) {
+				assertTrue(e.getMessage().contains("length 7"));
+			}
+		} finally {
+			Files.delete(path);
+		}
+	}
+
+	@Test
+	public void testTokenizeBig5BytesByByteOffsets() {
+		Charset big5 = Charset.forName("Big5");
+		FixedLengthTokenizer<?, PojoMappingCollectorTestPojo> tokenizer = 
+				fixedLengthTokenizers.tokenize(PojoMappingCollectorTestPojo::new)
+				.add("name", Object::toString, 6)
+				.add(null, null, 4)
+				.add("age", Integer::parseInt, 2);
+		
+		byte[] record = "\u738b\u5c0f\u660eXXXX22".getBytes(big5);
+		TokenizationResult<PojoMappingCollectorTestPojo> result = tokenizer
+				.split(record, TokenizationDecoder.of(big5));
+		
+		assertEquals("\u738b\u5c0f\u660e", result.getRoot().getName());
+		assertEquals(22, result.getRoot().getAge().intValue());
+		assertEquals(12L, result.getTokenizedTextSize().longValue());
+	}
+
+	@Test
+	public void testTokenizeMappedFileInParallelChunks() throws IOException {
+		FixedLengthTokenizationPlan<PojoMappingCollectorTestPojo> plan = fixedLengthTokenizers
+				.tokenize(PojoMappingCollectorTestPojo::new)
+				.add("name", Object::toString, 6)
+				.add("age", Integer::parseInt, 2)
+				.compile();
+		
+		List<String> names = new ArrayList<>();
+		StringBuilder content = new StringBuilder();
+		for (int i = 10; i < 60; i++) {
+			names.add("name" + i);
+			content.append("name").append(i).append(i).append(i % 2 == 0 ? "\r\n" : "\n");
+		}
+		
+		Path path = Files.createTempFile("tokenizer", ".txt");
+		try {
+			Files.write(path, content.toString().getBytes(StandardCharsets.UTF_8));
+			MappedFileTokenizer<PojoMappingCollectorTestPojo> tokenizer = new MappedFileTokenizer<>(
+					plan, StandardCharsets.UTF_8, TokenizationFraming.lines());
+			tokenizer.setChunkSize(64);
+			
+			try (Stream<TokenizationResult<PojoMappingCollectorTestPojo>> results = tokenizer
+					.split(path, true)) {
+				assertEquals(names, results.map(r -> r.getRoot().getName())
+						.collect(Collectors.toList()));
+			}
+			
+			try (Stream<TokenizationChunk<PojoMappingCollectorTestPojo>> chunks = tokenizer
+					.tokenize(path, false)) {
+				List<TokenizationChunk<PojoMappingCollectorTestPojo>> unordered = chunks
+						.collect(Collectors.toList());
+				assertTrue(unordered.size() > 1);
+				assertEquals(new HashSet<>(names), unordered.stream()
+						.flatMap(c -> c.getResults().stream())
+						.map(r -> r.getRoot().getName())
+						.collect(Collectors.toSet()));
+			}
+		} finally {
+			Files.delete(path);
+		}
+	}
+
+	@Test
+	public void testTokenizeDottedPathsAndConvertedValues() {
+		FixedLengthTokenizer<?, Graduate> tokenizer = fixedLengthTokenizers
+				.tokenize(Graduate::new)
+				.add("student.school", Object::toString, 10)
+				.add("year", Long::valueOf, 4);
+		
+		Graduate graduate = tokenizer.split("mySchool902022").getRoot();
+		assertEquals("mySchool90", graduate.getStudent().getSchool());
+		assertEquals(2022, graduate.getYear().intValue());
+	}
+
+	@Test
+	public void testTokenizePackedAndZonedDecimals() {
+		TokenizationFunctors functors = new TokenizationFunctors();
+		FixedLengthTokenizer<?, TestMessage> tokenizer = fixedLengthTokenizers
+				.tokenize(TestMessage::new)
+				.add("body[name]", Object::toString, 6)
+				.add("body[count]", functors.parsePackedLong(), 2)
+				.add("body[amount]", functors.parsePackedDecimal(2), 3)
+				.add("body[balance]", functors.parseZonedDecimal(2), 5)
+				.add("body[rate]", s -> functors.parseImpliedDecimal(3).apply(s), 4);
+		
+		byte[] record = new byte[] {
+				'm', 'y', 'N', 'a', 'm', 'e',
+				0x02, 0x2C,
+				0x12, 0x34, 0x5D,
+				'0', '1', '2', '3', 'J',
+				'1', '2', '5', '0' };
+		
+		Map<String, Object> body = tokenizer
+				.split(record, TokenizationDecoder.of(StandardCharsets.ISO_8859_1))
+				.getRoot().getBody();
+		
+		assertEquals("myName", body.get("name"));
+		assertEquals(22L, body.get("count"));
+		assertEquals(new BigDecimal("-123.45"), body.get("amount"));
+		assertEquals(new BigDecimal("-12.31"), body.get("balance"));
+		assertEquals(new BigDecimal("1.250"), body.get("rate"));
+		
+		Map<String, Object> truncated = fixedLengthTokenizers
+				.tokenize(TestMessage::new)
+				.add("body[name]", Object::toString, 6)
+				.add("body[count]", functors.parsePackedLong(), 2)
+				.add("body[amount]", functors.parsePackedDecimal(2), 3)
+				.add("body[balance]", functors.parseZonedDecimal(2), 5)
+				.split(Arrays.copyOf(record, 9), TokenizationDecoder.of(StandardCharsets.ISO_8859_1))
+				.getRoot().getBody();
+		
+		assertEquals(22L, truncated.get("count"));
+		assertFalse(truncated.containsKey("amount"));
+		assertFalse(truncated.containsKey("balance"));
+	}
+
+	@Test
+	public void testTokenizeDetailDispatchesTextDiscriminators() {
+		FixedLengthTokenizationActions<TestMessage> actions = FixedLengthTokenizationActions.into(
+				TestMessage.class, GeneralBuilders
+				.of(Suppliers.newList(FixedLengthTokenizationAction.class))
+				.with(GeneralBuildingWriters.set(
+						BiConsumers.forListOf(FixedLengthTokenizationAction.class), 
+						GeneralBuilders.of(FixedLengthTokenizationAction::new)
+						.with(GeneralBuildingWriters.set(
+								FixedLengthTokenizationAction::setPropertyPath, "body[role]"))
+						.with(GeneralBuildingWriters.set(
+								FixedLengthTokenizationAction::setTextLength, 1))
+						.with(GeneralBuildingWriters.set(
+								FixedLengthTokenizationAction::setValueMapperExpression, 
+								"getText()"))
+						.with(GeneralBuildingWriters.set(
+								FixedLengthTokenizationAction::setTokenizationMapperName, "role"))
+						.build()))
+				.build());
+		
+		TokenizationResult<TestMessage> result = actions
+				.tokenize(fixedLengthTokenizers, "1yourJob89012345y");
+		
+		assertEquals("1", result.getRoot().getBody().get("role"));
+		Worker worker = (Worker) result.findMappingItem("role:1");
+		assertNotNull(worker);
+		assertEquals("yourJob89012345", worker.getJob());
+		assertTrue(worker.isMerried());
+		assertEquals(17L, result.getTokenizedTextSize().longValue());
+		
+		try {
+			actions.tokenize(fixedLengthTokenizers, "7yourJob89012345y");
+			fail("unknown discriminator must not be skipped");
+		} catch (IllegalArgumentException e) {
+			assertTrue(e.getMessage().contains("role"));
+		}
+		
+		FixedLengthTokenizersImpl tokenizers = (FixedLengthTokenizersImpl) fixedLengthTokenizers;
+		Map<String, Map<Object, FixedLengthTokenizationActions<?>>> mappers = 
+				tokenizers.getTokenizationActionsMappers();
+		Map<Object, FixedLengthTokenizationActions<?>> roles = new HashMap<>(mappers.get("role"));
+		roles.put(7, roles.get(1));
+		Map<String, Map<Object, FixedLengthTokenizationActions<?>>> replaced = 
+				new HashMap<>(mappers);
+		replaced.put("role", roles);
+		try {
+			tokenizers.setTokenizationActionsMappers(replaced);
+			assertNotNull(actions.tokenize(fixedLengthTokenizers, "7yourJob89012345y")
+					.findMappingItem("role:7"));
+		} finally {
+			tokenizers.setTokenizationActionsMappers(mappers);
+		}
+	}
+
+	@Test
+	public void testWriteRecordsWithTokenizationLayouts() throws IOException {
+		FixedLengthTokenizationActions<PojoMappingCollectorTestPojo> actions = 
+				FixedLengthTokenizationActions.into(PojoMappingCollectorTestPojo.class, 
+						new ArrayList<FixedLengthTokenizationAction>())
+				.parse("name", 6, "getText")
+				.parse("age", 3, "parseIntValue")
+				.parse("birthday", 8, "parseDatetime(#options)", "'yyyyMMdd'")
+				.parse("merried", 1, "parseBoolean(#options)", 
+						"'''Y''.equals(#root.toUpperCase())'");
+		FixedLengthWriter<PojoMappingCollectorTestPojo> writer = actions
+				.write(fixedLengthTokenizers, StandardCharsets.US_ASCII);
+		
+		PojoMappingCollectorTestPojo pojo = new PojoMappingCollectorTestPojo();
+		pojo.setName("myName7890");
+		pojo.setAge(-7);
+		pojo.setBirthday(toDate("20220101"));
+		pojo.setMerried(true);
+		
+		PojoMappingCollectorTestPojo blank = new PojoMappingCollectorTestPojo();
+		blank.setName("yr");
+		blank.setMerried(false);
+		
+		assertEquals(18, writer.getRecordSize());
+		assertEquals("myName-0720220101Y", 
+				new String(writer.toBytes(pojo), StandardCharsets.US_ASCII));
+		assertEquals("yr               N", 
+				new String(writer.toBytes(blank), StandardCharsets.US_ASCII));
+		
+		Path file = Files.createTempFile("fixed-length", ".txt");
+		try {
+			writer.setRecordSeparator("\n");
+			assertEquals(2L, writer.write(Stream.of(pojo, pojo), file));
+			
+			try (Stream<TokenizationResult<PojoMappingCollectorTestPojo>> results = actions
+					.compile(fixedLengthTokenizers)
+					.split(file, StandardCharsets.US_ASCII, TokenizationFraming.lines())) {
+				List<PojoMappingCollectorTestPojo> pojos = results
+						.map(TokenizationResult::getRoot)
+						.collect(Collectors.toList());
+				assertEquals(2, pojos.size());
+				assertEquals("myName", pojos.get(1).getName());
+				assertEquals(-7, pojos.get(1).getAge().intValue());
+				assertEquals("20220101", toDateText(pojos.get(1).getBirthday()));
+				assertTrue(pojos.get(1).getMerried());
+			}
+		} finally {
+			Files.delete(file);
+		}
+		
+		PojoMappingCollectorTestPojo sqlDated = new PojoMappingCollectorTestPojo();
+		sqlDated.setName("sql");
+		sqlDated.setBirthday(java.sql.Date.valueOf("2022-01-01"));
+		sqlDated.setMerried(false);
+		byte[] sqlDatedRecord = writer.toBytes(sqlDated);
+		assertEquals("sql      20220101N", new String(sqlDatedRecord, StandardCharsets.US_ASCII));
+		assertEquals("20220101", toDateText(actions.compile(fixedLengthTokenizers)
+				.split(new String(sqlDatedRecord, StandardCharsets.US_ASCII))
+				.getRoot().getBirthday()));
+		
+		TestMessage msg = new TestMessage();
+		msg.getBody().put("amount", new BigDecimal("-123.45"));
+		msg.getBody().put("balance", new BigDecimal("-12.31"));
+		byte[] record = fixedLengthTokenizers.<TestMessage>write(StandardCharsets.ISO_8859_1)
+				.add("body[amount]", new TokenizationFormatters().parsePackedDecimal(2), 3)
+				.add("body[balance]", new TokenizationFormatters().parseZonedDecimal(2), 5)
+				.toBytes(msg);
+		assertTrue(Arrays.equals(new byte[] { 0x12, 0x34, 0x5D, '0', '1', '2', '3', 'J' }, record));
+		
+		try {
+			FixedLengthTokenizationActions.into(PojoMappingCollectorTestPojo.class, 
+					new ArrayList<FixedLengthTokenizationAction>())
+					.parse("age", 3, "parseIntVal")
+					.write(fixedLengthTokenizers, StandardCharsets.US_ASCII);
+			fail("a value mapper expression without a formatter must not be written as text");
+		} catch (IllegalStateException e) {
+			assertTrue(e.getMessage().contains("parseIntVal of age"));
+		}
+	}
 }
@@ -0,0 +1,25 @@
+package org.dotspace.oofp.support.test.tokenizer;
+
+public class Graduate {
+
+	private Student student = new Student();
+	
+	private Integer year;
+
+	public Student getStudent() {
+		return student;
+	}
+
+	public void setStudent(Student student) {
+		this.student = student;
+	}
+
+	public Integer getYear() {
+		return year;
+	}
+
+	public void setYear(Integer year) {
+		this.year = year;
+	}
+
+}
@@ -0,0 +1,107 @@
+package org.dotspace.oofp.support.transform;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+
+import org.dotspace.oofp.support.transform.TransformationResults.Failure;
+
+/**
+ * Runs one transformation over many sources, sequentially or in ranges of at most
+ * {@link #SPLIT_THRESHOLD} sources on a fork-join pool, catching the failure of each source.
+ */
+final class BulkTransformations {
+
+	static final int SPLIT_THRESHOLD = 64;
+
+	private BulkTransformations() {
+	}
+
+	static <S, T> TransformationResults<T> transform(Iterator<? extends S> sources,
+			Function<S, T> transformation) {
+		List<T> results = new ArrayList<>();
+		List<Failure> failures = new ArrayList<>();
+		for (int i = 0; sources.hasNext(); i++) {
+			S source = sources.next();
+			try {
+				results.add(transformation.apply(source));
+			} catch (RuntimeException e) {
+				results.add(null);
+				failures.add(new Failure(i, source, e));
+			}
+		}
+		return new TransformationResults<>(results, failures);
+	}
+
+	static <S, T> TransformationResults<T> transform(List<? extends S> sources,
+			Function<S, T> transformation, ForkJoinPool pool) {
+		List<? extends S> items = sources instanceof RandomAccess 
+				? sources 
+				: new ArrayList<>(sources);
+		Object[] results = new Object[items.size()];
+		Queue<Failure> failures = new ConcurrentLinkedQueue<>();
+		pool.invoke(new RangeTask<>(items, transformation, results, failures, 0, items.size()));
+
+		List<Failure> sorted = new ArrayList<>(failures);
+		sorted.sort(Comparator.comparingInt(Failure::getIndex));
+		@SuppressWarnings("unchecked")
+		List<T> values = (List<T>) Arrays.asList(results);
+		return new TransformationResults<>(values, sorted);
+	}
+
+	private static class RangeTask<S, T> extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final List<? extends S> sources;
+
+		private final Function<S, T> transformation;
+
+		private final Object[] results;
+
+		private final Queue<Failure> failures;
+
+		private final int from;
+
+		private final int to;
+
+		private RangeTask(List<? extends S> sources, Function<S, T> transformation,
+				Object[] results, Queue<Failure> failures, int from, int to) {
+			this.sources = sources;
+			this.transformation = transformation;
+			this.results = results;
+			this.failures = failures;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > SPLIT_THRESHOLD) {
+				int middle = (from + to) >>> 1;
+				invokeAll(new RangeTask<>(sources, transformation, results, failures, from, middle),
+						new RangeTask<>(sources, transformation, results, failures, middle, to));
+				return;
+			}
+
+			for (int i = from; i < to; i++) {
+				S source = sources.get(i);
+				try {
+					results[i] = transformation.apply(source);
+				} catch (RuntimeException e) {
+					failures.add(new Failure(i, source, e));
+				}
+			}
+		}
+
+	}
+
+}
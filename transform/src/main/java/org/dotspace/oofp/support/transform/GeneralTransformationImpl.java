@@ -1,25 +1,27 @@
 package org.dotspace.oofp.support.transform;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
-import java.util.function.Predicate;
-import java.util.stream.Collector;
+import java.util.function.Supplier;
 
-import org.apache.commons.lang3.StringUtils;
 import org.dotspace.oofp.support.ExpressionEvaluations;
 import org.dotspace.oofp.support.GeneralTransformation;
 import org.dotspace.oofp.support.dto.GeneralTransformationRequest;
-import org.dotspace.oofp.util.functional.Casters;
 import org.dotspace.oofp.util.functional.FunctionalSupport;
 
 public class GeneralTransformationImpl implements GeneralTransformation {
 
 	private FunctionalSupport functionalSupport;
 	private ExpressionEvaluations expressionEvaluations; 
+	private final Map<List<TransformMapping>, TransformationPlan> plans = 
+			Collections.synchronizedMap(new WeakHashMap<>());
 	
 	@Override
 	public <P, T> T transform(GeneralTransformationRequest<P, T> request) {
@@ -44,139 +46,56 @@ public class GeneralTransformationImpl implements GeneralTransformation {
 			return result;
 		}
 		
-		transformMappers.stream()
-		.sorted((l, r) -> compare(TransformMapping::getMapperItemSequence, l, r))
-		.forEach(tm -> transformItem(tm, instance, result));
-		
-		return result;
+		return compile(transformMappers).transform(instance, result);
 	}
 
-	private <V extends Comparable<V>> int compare(Function<TransformMapping, V> getter, 
-			TransformMapping left, TransformMapping right) {
-		Integer leftComparsion = Optional.ofNullable(left)
-				.map(getter)
-				.map(v -> v.compareTo(Optional.ofNullable(right)
-						.map(getter).orElse(null)))
-				.orElse(null);
-		
-		if (null != leftComparsion) {
-			return leftComparsion;
-		}
-		
-		Integer rightComparsion = Optional.ofNullable(right)
-				.map(getter)
-				.map(v -> v.compareTo(Optional.ofNullable(left)
-						.map(getter).orElse(null)))
-				.orElse(null);
-		
-		if (null != rightComparsion) {
-			return rightComparsion;
-		}
-		
-		return 0;
-		
-	}
-	
-	private <T> void transformItem(TransformMapping transformMapper, 
-			Object srcInfo, T result) {
-		
-		Object sourcePropValue = getSourceExpressionValue(transformMapper, srcInfo);
-		
-		Predicate<Object> predicate = createPredicate(transformMapper);
-		
-		if (!Optional.ofNullable(sourcePropValue).filter(predicate).isPresent()) {
-			return;
-		}
-		
-		if (!StringUtils.isBlank(transformMapper.getIndicator())) {
-			
-			if (sourcePropValue instanceof List) {
-				int index = Integer.parseInt(transformMapper.getIndicator());
-				sourcePropValue = ((List<?>) sourcePropValue).get(index);
-			}
-			else if (sourcePropValue instanceof Map) {
-				String key = transformMapper.getIndicator();
-				sourcePropValue = Optional.ofNullable(sourcePropValue)
-						.map(Casters.forMap(String.class, Object.class))
-						.map(m -> m.get(key))
-						.orElse(null);
-			}
-		}
-		
-		Function<Object, Object> valueMapper = createValueMapper(transformMapper);
-		
-		Object mappedValue = Optional.ofNullable(sourcePropValue).map(valueMapper).orElse(null);
-		
-		if (!StringUtils.isBlank(transformMapper.getCollectorName())) {
-			Collector<Object, ?, Object> collector = createValuesCollector(transformMapper);
-			if (mappedValue instanceof Collection) {
-				@SuppressWarnings("unchecked")
-				Collection<Object> collection = (Collection<Object>) mappedValue;
-				
-				mappedValue = collection.stream().collect(collector);
-			}
-			else if (mappedValue instanceof Map) {
-				@SuppressWarnings("unchecked")
-				Map<String, Object> map = (Map<String, Object>) mappedValue;
-				
-				mappedValue = map.values().stream().collect(collector);
-			}
-		}		
-		
-		expressionEvaluations.parse(transformMapper.getDestinationExpression()).setValue(
-				result, mappedValue);
+	/**
+	 * Transforms every source into a destination of its own through the plan compiled once for the
+	 * mappings; a source whose transformation fails leaves a null destination and a failure.
+	 */
+	public <S, T> TransformationResults<T> transformAll(Supplier<T> destinations, 
+			List<TransformMapping> transformMappers, Collection<? extends S> sources) {
+		TransformationPlan plan = compile(transformMappers);
+		return BulkTransformations.transform(sources.iterator(), 
+				source -> transform(plan, destinations.get(), source));
 	}
 
-	private Collector<Object, Object, Object> createValuesCollector(TransformMapping transformMapper) {
-		String collectorName = transformMapper.getCollectorName();
-		String collectorOptions = transformMapper.getCollectorOptions();
-		
-		if (collectorName == null) {
-			return null;
-		}
-		
-		return Optional.ofNullable(collectorOptions)
-				.map(optsExpr -> functionalSupport
-						.getCollector(collectorName, getOptions(collectorOptions)))
-				.orElse(functionalSupport.getCollector(collectorName));			
+	/**
+	 * As {@link #transformAll(Supplier, List, Collection)} in ranges on the pool; the destinations
+	 * keep the order of the sources.
+	 */
+	public <S, T> TransformationResults<T> transformParallel(Supplier<T> destinations, 
+			List<TransformMapping> transformMappers, Collection<? extends S> sources, 
+			ForkJoinPool pool) {
+		TransformationPlan plan = compile(transformMappers);
+		List<? extends S> items = sources instanceof List 
+				? (List<? extends S>) sources 
+				: new ArrayList<>(sources);
+		return BulkTransformations.transform(items, 
+				source -> transform(plan, destinations.get(), source), pool);
 	}
 
-	private Function<Object, Object> createValueMapper(TransformMapping transformMapper) {
-		String valueMapperName = transformMapper.getValueMapperName();
-		String valueMapperOptions = transformMapper.getValueMapperOptions();
-		
-		if (null == valueMapperName) {
-			return x -> x;
-		}
-		
-		return Optional.ofNullable(valueMapperOptions)
-				.map(expr -> functionalSupport.getFunction(valueMapperName, getOptions(expr)))
-				.orElse(functionalSupport.getFunction(valueMapperName));
+	private <T> T transform(TransformationPlan plan, T result, Object instance) {
+		return null != result ? plan.transform(instance, result) : null;
 	}
 
-	private Predicate<Object> createPredicate(TransformMapping transformMapper) {
-		String predicateName = transformMapper.getPredicateName();
-		
-		if (null == predicateName) {
-			return x -> true;
+	/**
+	 * Compiles the mappings into a plan, or returns the plan compiled for a list of the same
+	 * mapping instances, kept for as long as that list is; a mapping or list changed after its
+	 * first transformation needs {@link #clearPlans()}.
+	 */
+	public TransformationPlan compile(List<TransformMapping> transformMappers) {
+		TransformationPlan plan = plans.get(transformMappers);
+		if (null == plan) {
+			plan = TransformationPlan.compile(transformMappers, expressionEvaluations, 
+					functionalSupport);
+			plans.put(transformMappers, plan);
 		}
-		
-		return Optional.ofNullable(transformMapper.getPredicateOptions())
-				.map(expr -> {
-					return functionalSupport.getPredicate(
-							predicateName, getOptions(expr));
-				})
-				.orElse(functionalSupport.getPredicate(predicateName));
-	}
-
-	private Object getOptions(String optionsExpression) {
-		return expressionEvaluations.parse(optionsExpression)
-				.getValue();
+		return plan;
 	}
 
-	private Object getSourceExpressionValue(TransformMapping transformMapper, Object instance) {
-		return expressionEvaluations.parse(transformMapper.getSourceExpression())
-				.getValueWithVariables(Collections.emptyMap(), instance);
+	public void clearPlans() {
+		plans.clear();
 	}
 
 	public FunctionalSupport getFunctionalSupport() {
@@ -185,6 +104,7 @@ public class GeneralTransformationImpl implements GeneralTransformation {
 
 	public void setFunctionalSupport(FunctionalSupport functionalSupport) {
 		this.functionalSupport = functionalSupport;
+		plans.clear();
 	}
 
 	public ExpressionEvaluations getExpressionEvaluations() {
@@ -193,6 +113,7 @@ public class GeneralTransformationImpl implements GeneralTransformation {
 
 	public void setExpressionEvaluations(ExpressionEvaluations expressionEvaluations) {
 		this.expressionEvaluations = expressionEvaluations;
+		plans.clear();
 	}
 
 }
@@ -3,26 +3,31 @@ package org.dotspace.oofp.support.transform;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
-import java.util.Optional;
-import java.util.function.Consumer;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Collector;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.dotspace.oofp.support.ExpressionEvaluation;
 import org.dotspace.oofp.support.ExpressionEvaluations;
-import org.dotspace.oofp.support.builder.GeneralBuilders;
-import org.dotspace.oofp.support.builder.writer.GeneralBuildingWriters;
-import org.dotspace.oofp.util.functional.BiConsumers;
 import org.dotspace.oofp.util.functional.FunctionalSupport;
-import org.dotspace.oofp.util.functional.Suppliers;
 
 public class TransformationContext<T, A> {
 
+	private static final ClassValue<Boolean> CONDITIONAL_SOURCES = new ClassValue<Boolean>() {
+
+		@Override
+		protected Boolean computeValue(Class<?> type) {
+			return "ConditionalSourceInfo".equals(type.getSimpleName());
+		}
+
+	};
+
 	private ExpressionEvaluations expressionEvaluations;
 	private FunctionalSupport functionalSupport; 
 	
@@ -31,6 +36,8 @@ public class TransformationContext<T, A> {
 	
 	private List<TransformAction> actions = new ArrayList<>();
 	
+	private volatile ActionStage[] stages;
+	
 	protected TransformationContext(Function<A, T> constructor, A args, 
 			ExpressionEvaluations expressionEvaluations, FunctionalSupport functionalSupport) {
 		this.expressionEvaluations = expressionEvaluations;
@@ -70,9 +77,36 @@ public class TransformationContext<T, A> {
 	
 	public TransformationContext<T, A> with(TransformAction action) {
 		actions.add(action);
+		stages = null;
 		return this;
 	}
 	
+	/**
+	 * Parses the reader and writer and resolves the functors and options of every action now
+	 * instead of on the first transformation; actions added later are compiled again on use.
+	 */
+	public TransformationContext<T, A> compile() {
+		stages = compileStages();
+		return this;
+	}
+	
+	private ActionStage[] getStages() {
+		ActionStage[] compiled = stages;
+		if (null == compiled) {
+			compiled = compileStages();
+			stages = compiled;
+		}
+		return compiled;
+	}
+	
+	private ActionStage[] compileStages() {
+		ActionStage[] compiled = new ActionStage[actions.size()];
+		for (int i = 0; i < compiled.length; i++) {
+			compiled[i] = new ActionStage(actions.get(i), expressionEvaluations, functionalSupport);
+		}
+		return compiled;
+	}
+	
 	public <S> T transform(S source) {
 		if (null == constructor) {
 			return null;
@@ -80,109 +114,148 @@ public class TransformationContext<T, A> {
 		
 		T destination = constructor.apply(args);
 		
- 		actions.forEach(transform(source, destination));
+		boolean conditionalSource = null != source && CONDITIONAL_SOURCES.get(source.getClass());
+		for (ActionStage stage : getStages()) {
+			stage.transform(source, destination, conditionalSource);
+		}
 		
 		return destination;
 	}
 	
-	private <S> Consumer<TransformAction> transform(S source, T destination) {
-		return mbrTrnsfrmtn -> {
-			Object value = expressionEvaluations.parse(mbrTrnsfrmtn.getReader())
-					.getValue(source);
-			
-			List<MappingFunctorConfiguration> mappingFunctors = 
-					mbrTrnsfrmtn.getMappers();
-			
-			class Ctx {
-				private Optional<Object> valueOpt;
-				
-				public Ctx(Object value) {
-					this.valueOpt = Optional.ofNullable(value);
-				}
-				
-				public void filter(Predicate<Object> predicate) {
-					valueOpt = valueOpt.filter(predicate);
-				}
-				
-				public void map(Function<Object, Object> mapper) {
-					if ("ConditionalSourceInfo".equals(source.getClass().getSimpleName())) {
-						valueOpt = valueOpt.map(mapper);
-					} else {
-						valueOpt = "Optional.empty".equals(valueOpt.toString()) ? Optional.of("").map(mapper) : valueOpt.map(mapper);
-					}
+	/**
+	 * Transforms every source in turn through the one compiled pipeline; a failing source leaves
+	 * a null destination and its failure in the results instead of aborting the rest.
+	 */
+	public <S> TransformationResults<T> transformAll(Collection<? extends S> sources) {
+		getStages();
+		return BulkTransformations.transform(sources.iterator(), source -> transform(source));
+	}
 
-				}
-				
-				public Optional<Object> getValueOpt() {
-					return valueOpt;
-				}
-			}
-			
-			Ctx ctx = new Ctx(value);
+	/**
+	 * As {@link #transformAll(Collection)}; a parallel stream is transformed on the common pool.
+	 */
+	public <S> TransformationResults<T> transform(Stream<? extends S> sources) {
+		getStages();
+		if (sources.isParallel()) {
+			return BulkTransformations.transform(sources.collect(Collectors.toList()), 
+					source -> transform(source), ForkJoinPool.commonPool());
+		}
+		return BulkTransformations.transform(sources.iterator(), source -> transform(source));
+	}
+
+	/**
+	 * As {@link #transformAll(Collection)} on a pool of the given parallelism, shut down once
+	 * every source is transformed; the destinations keep the order of the sources.
+	 */
+	public <S> TransformationResults<T> transformParallel(Collection<? extends S> sources, 
+			int parallelism) {
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			return transformParallel(sources, pool);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	public <S> TransformationResults<T> transformParallel(Collection<? extends S> sources, 
+			ForkJoinPool pool) {
+		getStages();
+		List<? extends S> items = sources instanceof List 
+				? (List<? extends S>) sources 
+				: new ArrayList<>(sources);
+		return BulkTransformations.transform(items, source -> transform(source), pool);
+	}
+
+	private static class ActionStage {
+		
+		private final ExpressionEvaluation reader;
+		
+		private final MappingStep[] steps;
+		
+		private final Collector<Object, ?, Object> collector;
+		
+		private final ExpressionEvaluation writer;
+		
+		private final boolean writingValue;
+		
+		private ActionStage(TransformAction action, ExpressionEvaluations expressionEvaluations, 
+				FunctionalSupport functionalSupport) {
+			reader = expressionEvaluations.parse(action.getReader());
 			
-			mappingFunctors.forEach(functor -> {
+			List<MappingFunctorConfiguration> mappingFunctors = action.getMappers();
+			steps = new MappingStep[mappingFunctors.size()];
+			for (int i = 0; i < mappingFunctors.size(); i++) {
+				MappingFunctorConfiguration functor = mappingFunctors.get(i);
 				if (functor.getType() == TransformMappingType.PREDICATE) {
-					Predicate<Object> predicate = Optional
-							.ofNullable(functor)
-							.filter(mpng -> null != mpng.getName())
-							.map(mpng -> functionalSupport.getPredicate(
-									mpng.getName(), functionalSupport.getOptions(
-											mpng.getOptions())))
-							.orElse(x -> true);
-					ctx.filter(predicate);
-					return;
+					Predicate<Object> predicate = null != functor.getName()
+							? functionalSupport.getPredicate(functor.getName(), 
+									functionalSupport.getOptions(functor.getOptions()))
+							: x -> true;
+					steps[i] = (value, conditionalSource) -> 
+							null != value && predicate.test(value) ? value : null;
+				} else {
+					Function<Object, Object> mapper = null != functor.getName()
+							? functionalSupport.getFunction(functor.getName(), 
+									functionalSupport.getOptions(functor.getOptions()))
+							: x -> x;
+					steps[i] = (value, conditionalSource) -> null != value 
+							? mapper.apply(value) 
+							: conditionalSource ? null : mapper.apply("");
 				}
-				
-				Function<Object, Object> valueMapper = Optional
-						.ofNullable(functor)
-						.filter(mpng -> null != mpng.getName())
-						.map(mpng -> functionalSupport.getFunction(mpng.getName(), 
-								functionalSupport.getOptions(mpng.getOptions())))
-						.orElse(x -> x);
-				ctx.map(valueMapper);
-			});
-			
-			Object mappedValue = ctx.getValueOpt().orElse(null);
+			}
 			
-			FunctorConfiguration collectingFunctor = mbrTrnsfrmtn
-					.getCollector();
+			FunctorConfiguration collectingFunctor = action.getCollector();
+			collector = null != collectingFunctor && null != collectingFunctor.getName()
+					? functionalSupport.getCollector(collectingFunctor.getName(), 
+							functionalSupport.getOptions(collectingFunctor.getOptions()))
+					: null;
 			
-			Collector<Object, ?, Object> collector = Optional
-					.ofNullable(collectingFunctor)
-					.filter(functor -> null != functor.getName())
-					.map(functor -> functionalSupport.getCollector(functor.getName(), 
-							functionalSupport.getOptions(functor.getOptions())))
-					.orElse(null);
+			String writingExpr = action.getWriter();
+			writer = null != writingExpr ? expressionEvaluations.parse(writingExpr) : null;
+			writingValue = null != writingExpr && writingExpr.contains("#value");
+		}
+		
+		/**
+		 * An empty value reaching a mapper is mapped from an empty string, except for a
+		 * ConditionalSourceInfo source.
+		 */
+		private void transform(Object source, Object destination, boolean conditionalSource) {
+			Object value = reader.getValue(source);
 			
-			Object collectedValue = Optional.ofNullable(mappedValue)
-					.filter(x -> null != collector)
-					.map(this::toStream)
-					.map(strm -> strm.collect(collector))
-					.orElse(mappedValue);
+			for (MappingStep step : steps) {
+				value = step.apply(value, conditionalSource);
+			}
 			
-			String writingExpr = mbrTrnsfrmtn.getWriter();
+			if (null != value && null != collector) {
+				Stream<Object> stream = toStream(value);
+				Object collected = null != stream ? stream.collect(collector) : null;
+				value = null != collected ? collected : value;
+			}
 			
-			if (null == writingExpr) {
+			if (null == writer) {
 				return;
 			}
 			
-			ExpressionEvaluation exprEvaluation = expressionEvaluations.parse(writingExpr);
-			if (writingExpr.contains("#value")) {
-				Optional.ofNullable(collectedValue).ifPresent(cv -> {
-					Map<String, Object> expressionCtx = GeneralBuilders
-							.of(Suppliers.newHashMap(String.class, Object.class))
-							.with(GeneralBuildingWriters.set(BiConsumers.forMapOf("value", Object.class), cv))
-							.build();
-					exprEvaluation.getValueWithVariables(expressionCtx, destination);
-				});
+			if (writingValue) {
+				if (null != value) {
+					writer.getValueWithVariables(Collections.singletonMap("value", value), 
+							destination);
+				}
 				return;
 			}
-				
-			exprEvaluation.setValue(destination, collectedValue);
-		};
+			
+			writer.setValue(destination, value);
+		}
+		
+	}
+
+	private interface MappingStep {
+
+		public Object apply(Object value, boolean conditionalSource);
+
 	}
 
-	private <E> Stream<E> toStream(Object value) {
+	private static <E> Stream<E> toStream(Object value) {
 		Stream<E> result = null;
 		
 		if (null == value) {
@@ -221,6 +294,7 @@ public class TransformationContext<T, A> {
 
 	public void setFunctionalSupport(FunctionalSupport functionalSupport) {
 		this.functionalSupport = functionalSupport;
+		stages = null;
 	}
 	
 }
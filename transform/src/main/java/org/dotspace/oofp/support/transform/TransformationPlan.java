@@ -0,0 +1,192 @@
+package org.dotspace.oofp.support.transform;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collector;
+
+import org.apache.commons.lang3.StringUtils;
+import org.dotspace.oofp.support.ExpressionEvaluation;
+import org.dotspace.oofp.support.ExpressionEvaluations;
+import org.dotspace.oofp.util.functional.FunctionalSupport;
+
+/**
+ * A list of {@link TransformMapping}s compiled once: sorted by item sequence, with the source and
+ * destination expressions parsed and the predicate, value mapper and collector of every mapping
+ * resolved with their options, so transforming a source evaluates and applies them only. The
+ * functors are shared by every transformation through the plan and must not keep state.
+ */
+public class TransformationPlan {
+
+	private static final Comparator<TransformMapping> ITEM_SEQUENCE = Comparator.comparing(
+			TransformMapping::getMapperItemSequence,
+			Comparator.nullsLast(Comparator.<Integer>naturalOrder()));
+
+	private final MappingStep[] steps;
+
+	private TransformationPlan(MappingStep[] steps) {
+		this.steps = steps;
+	}
+
+	public static TransformationPlan compile(List<TransformMapping> transformMappers,
+			ExpressionEvaluations expressionEvaluations, FunctionalSupport functionalSupport) {
+		List<TransformMapping> sorted = new ArrayList<>(transformMappers);
+		sorted.sort(ITEM_SEQUENCE);
+
+		MappingStep[] steps = new MappingStep[sorted.size()];
+		for (int i = 0; i < steps.length; i++) {
+			steps[i] = new MappingStep(sorted.get(i), expressionEvaluations, functionalSupport);
+		}
+		return new TransformationPlan(steps);
+	}
+
+	public <T> T transform(Object source, T result) {
+		for (MappingStep step : steps) {
+			step.transform(source, result);
+		}
+		return result;
+	}
+
+	public int size() {
+		return steps.length;
+	}
+
+	private static class MappingStep {
+
+		private final ExpressionEvaluation source;
+
+		private final Predicate<Object> predicate;
+
+		private final String indicator;
+
+		private final Integer index;
+
+		private final Function<Object, Object> valueMapper;
+
+		private final Collector<Object, ?, Object> collector;
+
+		private final ExpressionEvaluation destination;
+
+		private MappingStep(TransformMapping transformMapper,
+				ExpressionEvaluations expressionEvaluations, FunctionalSupport functionalSupport) {
+			this.source = expressionEvaluations.parse(transformMapper.getSourceExpression());
+			this.predicate = createPredicate(transformMapper, expressionEvaluations,
+					functionalSupport);
+			this.indicator = StringUtils.isBlank(transformMapper.getIndicator())
+					? null
+					: transformMapper.getIndicator();
+			this.index = null != indicator && StringUtils.isNumeric(indicator)
+					? Integer.valueOf(indicator)
+					: null;
+			this.valueMapper = createValueMapper(transformMapper, expressionEvaluations,
+					functionalSupport);
+			this.collector = StringUtils.isBlank(transformMapper.getCollectorName())
+					? null
+					: createValuesCollector(transformMapper, expressionEvaluations,
+							functionalSupport);
+			this.destination = expressionEvaluations.parse(
+					transformMapper.getDestinationExpression());
+		}
+
+		private static Predicate<Object> createPredicate(TransformMapping transformMapper,
+				ExpressionEvaluations expressionEvaluations, FunctionalSupport functionalSupport) {
+			String predicateName = transformMapper.getPredicateName();
+			if (null == predicateName) {
+				return null;
+			}
+
+			String predicateOptions = transformMapper.getPredicateOptions();
+			return null != predicateOptions
+					? functionalSupport.getPredicate(predicateName,
+							getOptions(expressionEvaluations, predicateOptions))
+					: functionalSupport.getPredicate(predicateName);
+		}
+
+		private static Function<Object, Object> createValueMapper(TransformMapping transformMapper,
+				ExpressionEvaluations expressionEvaluations, FunctionalSupport functionalSupport) {
+			String valueMapperName = transformMapper.getValueMapperName();
+			if (null == valueMapperName) {
+				return null;
+			}
+
+			String valueMapperOptions = transformMapper.getValueMapperOptions();
+			return null != valueMapperOptions
+					? functionalSupport.getFunction(valueMapperName,
+							getOptions(expressionEvaluations, valueMapperOptions))
+					: functionalSupport.getFunction(valueMapperName);
+		}
+
+		private static Collector<Object, ?, Object> createValuesCollector(
+				TransformMapping transformMapper, ExpressionEvaluations expressionEvaluations,
+				FunctionalSupport functionalSupport) {
+			String collectorName = transformMapper.getCollectorName();
+			String collectorOptions = transformMapper.getCollectorOptions();
+			return null != collectorOptions
+					? functionalSupport.getCollector(collectorName,
+							getOptions(expressionEvaluations, collectorOptions))
+					: functionalSupport.getCollector(collectorName);
+		}
+
+		private static Object getOptions(ExpressionEvaluations expressionEvaluations,
+				String optionsExpression) {
+			return expressionEvaluations.parse(optionsExpression).getValue();
+		}
+
+		private void transform(Object srcInfo, Object result) {
+			Object value = source.getValueWithVariables(Collections.emptyMap(), srcInfo);
+			if (null == value || (null != predicate && !predicate.test(value))) {
+				return;
+			}
+
+			if (null != indicator) {
+				value = indicate(value);
+			}
+
+			Object mappedValue = null == value || null == valueMapper
+					? value
+					: valueMapper.apply(value);
+
+			if (null != collector) {
+				mappedValue = collect(mappedValue);
+			}
+
+			destination.setValue(result, mappedValue);
+		}
+
+		private Object indicate(Object value) {
+			if (value instanceof List) {
+				int i = null != index ? index : Integer.parseInt(indicator);
+				return ((List<?>) value).get(i);
+			}
+
+			if (value instanceof Map) {
+				return ((Map<?, ?>) value).get(indicator);
+			}
+
+			return value;
+		}
+
+		private Object collect(Object mappedValue) {
+			if (mappedValue instanceof Collection) {
+				@SuppressWarnings("unchecked")
+				Collection<Object> collection = (Collection<Object>) mappedValue;
+				return collection.stream().collect(collector);
+			}
+
+			if (mappedValue instanceof Map) {
+				@SuppressWarnings("unchecked")
+				Map<String, Object> map = (Map<String, Object>) mappedValue;
+				return map.values().stream().collect(collector);
+			}
+
+			return mappedValue;
+		}
+
+	}
+
+}
@@ -0,0 +1,65 @@
+package org.dotspace.oofp.support.transform;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The destinations of a bulk transformation in the order of their sources, null where the
+ * transformation of a source failed, together with the failures in source order.
+ */
+public class TransformationResults<T> {
+
+	private final List<T> results;
+
+	private final List<Failure> failures;
+
+	TransformationResults(List<T> results, List<Failure> failures) {
+		this.results = Collections.unmodifiableList(results);
+		this.failures = Collections.unmodifiableList(failures);
+	}
+
+	public List<T> getResults() {
+		return results;
+	}
+
+	public List<Failure> getFailures() {
+		return failures;
+	}
+
+	public boolean hasFailures() {
+		return !failures.isEmpty();
+	}
+
+	public int size() {
+		return results.size();
+	}
+
+	public static class Failure {
+
+		private final int index;
+
+		private final Object source;
+
+		private final RuntimeException exception;
+
+		Failure(int index, Object source, RuntimeException exception) {
+			this.index = index;
+			this.source = source;
+			this.exception = exception;
+		}
+
+		public int getIndex() {
+			return index;
+		}
+
+		public Object getSource() {
+			return source;
+		}
+
+		public RuntimeException getException() {
+			return exception;
+		}
+
+	}
+
+}
@@ -1,10 +1,16 @@
 package org.dotspace.oofp.support.transform;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.apache.commons.lang3.StringUtils;
 import org.dotspace.oofp.support.ExpressionEvaluations;
+import org.dotspace.oofp.support.ExpressionSource;
+import org.dotspace.oofp.support.expression.ExpressionDependencies;
 import org.dotspace.oofp.util.functional.FunctionalSupport;
 import org.springframework.stereotype.Component;
 
@@ -21,7 +27,7 @@ public class Transformations {
 	public <A, T> TransformationContext<T, A> into(Function<A, T> constructor, A arg, 
 			List<TransformAction> actions) {
 		return new TransformationContext<>(constructor, arg, expressionEvaluations, functionalSupport, 
-				actions);
+				actions).compile();
 	}
 	
 	public <T> TransformationContext<T, ?> into(Supplier<T> constructor) {
@@ -30,10 +36,33 @@ public class Transformations {
 
 	public <T> TransformationContext<T, ?> into(Supplier<T> constructor, 
 			List<TransformAction> actions) {
-		return new TransformationContext<>(constructor, expressionEvaluations, functionalSupport, 
-				actions);
+		return new TransformationContext<T, Object>(constructor, expressionEvaluations, 
+				functionalSupport, actions).compile();
 	}
 	
+	public static ExpressionSource expressionsOf(List<TransformAction> actions) {
+		return () -> actions.stream()
+				.flatMap(action -> Stream.concat(
+						Stream.of(action.getReader(), action.getWriter(), 
+								Optional.ofNullable(action.getCollector())
+								.map(FunctorConfiguration::getOptions)
+								.orElse(null)),
+						action.getMappers().stream().map(FunctorConfiguration::getOptions)))
+				.filter(StringUtils::isNotBlank)
+				.collect(Collectors.toList());
+	}
+	
+	/**
+	 * The source properties the readers of the actions read, for loading or decoding only those
+	 * fields of the source.
+	 */
+	public static ExpressionDependencies dependenciesOf(List<TransformAction> actions) {
+		return ExpressionDependencies.union(actions.stream()
+				.map(TransformAction::getReader)
+				.filter(StringUtils::isNotBlank)
+				.collect(Collectors.toList()));
+	}
+
 	public FunctionalSupport getFunctionalSupport() {
 		return functionalSupport;
 	}
@@ -12,6 +12,7 @@ import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
+import java.util.Calendar;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
@@ -20,6 +21,8 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collector;
@@ -30,9 +33,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.dotspace.oofp.support.builder.GeneralBuilders;
 import org.dotspace.oofp.support.builder.writer.GeneralBuildingWriters;
-import org.dotspace.oofp.util.functional.BiConsumers;
 import org.dotspace.oofp.util.functional.Casters;
-import org.dotspace.oofp.util.functional.Suppliers;
 import org.dotspace.oofp.util.functional.collector.ClazzMappingCollector;
 import org.springframework.util.ReflectionUtils;
 
@@ -40,23 +41,16 @@ import com.fasterxml.jackson.core.type.TypeReference;
 
 public class TypeConversions {
 	
-	private static Map<String, String> datetimeFormats = GeneralBuilders
-			.of(Suppliers.newHashMap(String.class, String.class))
-			.with(GeneralBuildingWriters.set(BiConsumers.forMapOf(
-					"\\d{4}-\\d{2}-\\d{2}", String.class), "yyyy-MM-dd"))
-			.with(GeneralBuildingWriters.set(BiConsumers.forMapOf(
-					"\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2} z", String.class), 
-					"yyyy-MM-dd HH:mm:ss z"))
-			.with(GeneralBuildingWriters.set(BiConsumers.forMapOf(
-					"\\d{4}/\\d{2}/\\d{2}", String.class), "yyyy/MM/dd"))
-			.with(GeneralBuildingWriters.set(BiConsumers.forMapOf(
-					"\\d{4}/\\d{2}/\\d{2} \\d{2}:\\d{2}:\\d{2} z", String.class), 
-					"yyyy/MM/dd HH:mm:ss z"))
-			.with(GeneralBuildingWriters.set(BiConsumers.forMapOf(
-					"\\d{4}\\d{2}\\d{2}", String.class), "yyyyMMdd"))
-			.with(GeneralBuildingWriters.set(BiConsumers.forMapOf(
-					"\\d{4}\\d{2}\\d{2}\\d{2}\\d{2}\\d{2}z", String.class), "yyyyMMddHHmmssz"))
-			.build();
+	private static final List<TypeReference<?>> MAP_OF_OBJECTS = Arrays.asList(
+			new TypeReference<Map<String, Object>>() {});
+	
+	private static final ClassValue<ConcurrentMap<String, FieldAliases>> FIELDS = 
+			new ClassValue<ConcurrentMap<String, FieldAliases>>() {
+		@Override
+		protected ConcurrentMap<String, FieldAliases> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<>();
+		}
+	};
 	
 	public static <T> T convert(
 			Supplier<T> constructor, Map<String, Object> propertyValues) {
@@ -165,8 +159,7 @@ public class TypeConversions {
 	}
 
 	private static <T, A, R>  Object convertListOfType(Type type, Object propValue) {
-		if (TypeReflections.isGenericType(type, List.class, Arrays.asList(
-				new TypeReference<Map<String, Object>>(){}))) {
+		if (TypeReflections.isGenericType(type, List.class, MAP_OF_OBJECTS)) {
 			return propValue;
 		}
 		
@@ -309,130 +302,40 @@ public class TypeConversions {
 		return result;
 	}
 
+	/**
+	 * The field a map entry is assigned to and its value converted for the field. The field of a
+	 * name, its lower camel alias and the {@code is} alias of a boolean value, and what converting
+	 * a value for the field takes, are resolved once per class and name; a name matching no field
+	 * is not kept, so unknown keys cannot grow the cache.
+	 */
 	public static Optional<Pair<Field, Object>> convertFieldContent(Class<?> clazz,
 			Entry<String, Object> fieldEntry) {
 		
 		String fieldName = fieldEntry.getKey();
-		Field field = Optional.ofNullable(fieldName)
-				.map(fldnm -> ReflectionUtils.findField(clazz, fldnm))
-				.orElseGet(() -> {
-					if (Character.isUpperCase(fieldName.charAt(0))) {
-						String fldnm = fieldName.substring(0, 1).toLowerCase()
-								.concat(fieldName.length() > 1 ? fieldName.substring(1) : StringUtils.EMPTY);
-						return ReflectionUtils.findField(clazz, fldnm);
-					}
-					
-					return null;
-				});
-		
-		Object value =  fieldEntry.getValue();
-		if (null == field && Optional.ofNullable(value)
-				.filter(vl -> Boolean.class.isAssignableFrom(
-						vl.getClass())).isPresent() && 
-				null != fieldName && fieldName.length() > 0) {
-			field = ReflectionUtils.findField(clazz, 
-					"is".concat(fieldName.substring(0, 1).toUpperCase())
-					.concat(fieldName.length() > 1 ? fieldName.substring(1) : StringUtils.EMPTY));
-		}
-		
-		if (null == field || null == value) {
+		Object value = fieldEntry.getValue();
+		if (null == fieldName || null == value) {
 			return Optional.empty();
 		}
 		
-		Class<?> fieldTypeClazz = field.getType();
-		if (value instanceof Map) {
-			if (!Map.class.isAssignableFrom(fieldTypeClazz)) {
-				@SuppressWarnings("unchecked")
-				Map<String, Object> valueAsMap = (Map<String, Object>) value;
-				
-				value = TypeConversions.convertToClazz(fieldTypeClazz, valueAsMap);				
-			}
-			else {
-				Optional<Pair<Type, List<Type>>> typeInfo = TypeReflections.parseParameterizedType(field.getGenericType());
-				Type keyType = typeInfo.map(Pair::getRight).map(l -> l.get(0)).orElse(null);
-				value = Optional.ofNullable(value)
-						.map(Casters.forMap(String.class, Object.class))
-						.map(m -> m.entrySet().stream()
-							.map(e -> Number.class.isAssignableFrom((Class<?>) keyType) ? 
-									Pair.of(TypeConversions.parseNumber(e.getKey(), keyType), e.getValue()) : Pair.of(e.getKey(), e.getValue())
-							)
-							.collect(Collectors.toMap(Pair::getLeft, Pair::getRight))
-						).orElse(Collections.emptyMap());
-			}
-		}
-		else if (value instanceof List) {
-			List<Object> listValue = Optional.ofNullable(value)
-					.map(Casters.forList(Object.class))
-					.orElse(Collections.emptyList());
-			if (List.class.isAssignableFrom(field.getType())) {
-				value = getListFieldValue(field, listValue);
-			}
-			else if (Set.class.isAssignableFrom(field.getType())) {
-				value = getSetFieldValue(field, listValue);
-			}
-			else {
-				throw new UnsupportedOperationException("不支援的collection type!!");
-			}
-		}
-//		else if (value instanceof Set) {
-//			Type fieldGenericType = field.getGenericType();
-//			if (TypeReflections.isGenericType(fieldGenericType, Set.class, 
-//					Arrays.asList(new TypeReference<Map<String, Object>>() {}))) {
-//				return Optional.ofNullable(Pair.of(field, value));
-//			}
-//
-//			@SuppressWarnings("unchecked")
-//			List<Map<String, Object>> valueAsListOfMap = (List<Map<String, Object>>) value;
-//			
-//			value = TypeConvertsions.convertCollectionOfType(
-//					fieldGenericType, valueAsListOfMap, Collectors.toSet());
-//		}
-		else if (value instanceof Number) {
-			if (Date.class.isAssignableFrom(fieldTypeClazz)) {
-				Long millis = Number.class.cast(value).longValue();
-				value = TypeConversions.parseFromTimeMillis(millis);
-			}
-			else {
-				value = TypeConversions.convertValue((Number) value, 
-						field.getGenericType());
-			}
-		}
-		else if (value instanceof String) {
-			
-			Optional<String> textValueOpt = Optional.ofNullable(value)
-					.map(Casters.forText());
-			
-			if (Date.class.isAssignableFrom(fieldTypeClazz)) {
-				value = textValueOpt
-						.map(s -> Pair.of(s, determineDatetimeFormat(s)))
-						.map(e -> formatDate(e))
-						.orElse(null);				
-			}
-			else if (Class.class.isAssignableFrom(fieldTypeClazz)) {
-				value = textValueOpt
-						.map(s -> convertClazzValue(s))
-						.orElse(null);
-			}
-		}
-		
-		if (field.getModifiers() == Modifier.STATIC) {
+		FieldConversion field = getFieldAliases(clazz, fieldName).forValue(value);
+		if (null == field || field.staticOnly) {
 			return Optional.empty();
 		}
+		
+		return Optional.ofNullable(Pair.of(field.field, field.convert(value)));
+	}
 
-		if (fieldTypeClazz.isEnum() && value instanceof String) {
-			value = getEnumValue(field.getType(), (String) value);
-		}
-		else if (fieldTypeClazz.isArray()) {
-			Class<?> eClz = fieldTypeClazz.getComponentType();
-			
-			@SuppressWarnings("unchecked")
-			Class<Object[]> arrayClazz = (Class<Object[]>) fieldTypeClazz;
-			
-			value = convertArray(parseArrayValue(value, arrayClazz), eClz);
-			
+	private static FieldAliases getFieldAliases(Class<?> clazz, String fieldName) {
+		ConcurrentMap<String, FieldAliases> fields = FIELDS.get(clazz);
+		FieldAliases aliases = fields.get(fieldName);
+		if (null == aliases) {
+			aliases = new FieldAliases(clazz, fieldName);
+			if (aliases.isFound()) {
+				FieldAliases existing = fields.putIfAbsent(fieldName, aliases);
+				aliases = null != existing ? existing : aliases;
+			}
 		}
-		
-		return Optional.ofNullable(Pair.of(field, value));
+		return aliases;
 	}
 
 	private static Class<?> convertClazzValue(String s) {
@@ -450,6 +353,15 @@ public class TypeConversions {
 	}
 
 	private static Date parseDate(String dtText, String format) {
+		DatetimeLayout layout = null != dtText ? DatetimeLayout.of(dtText) : null;
+		if (null != layout && layout.format.equals(format)) {
+			return layout.parse(dtText);
+		}
+		
+		return parseDateAs(dtText, format);
+	}
+
+	private static Date parseDateAs(String dtText, String format) {
 		try {
 			return new SimpleDateFormat(format).parse(dtText);
 		} catch (ParseException e) {
@@ -457,18 +369,18 @@ public class TypeConversions {
 		}
 	}
 
+	private static Date parseDatetime(String dtText) {
+		DatetimeLayout layout = DatetimeLayout.of(dtText);
+		return null != layout ? layout.parse(dtText) : null;
+	}
+
 	public static Optional<String> determineDatetimeFormat(String datetimeText) {
 		if (StringUtils.isBlank(datetimeText)) {
 			return Optional.empty();
 		}
-						
-		for (Entry<String, String> e: datetimeFormats.entrySet()) {
-			if (datetimeText.matches(e.getKey())) {
-				return Optional.ofNullable(e.getValue());
-			}
-		}	
 		
-		return Optional.empty();
+		return Optional.ofNullable(DatetimeLayout.of(datetimeText))
+				.map(layout -> layout.format);
 	}
 	
 	public static Object convertArray(Object value, Class<?> clazz) {
@@ -531,40 +443,241 @@ public class TypeConversions {
 		return Enum.valueOf((Class<T>) enumClazz, value);
 	}
 	
-	private static Object getSetFieldValue(Field field, List<Object> value) {
-		Type fieldGenericType = field.getGenericType();
-		if (TypeReflections.isGenericType(fieldGenericType, Set.class, 
-				Arrays.asList(new TypeReference<Map<String, Object>>() {}))) {
-			return Optional.ofNullable(value).map(Casters.forListOfResultMap())
-					.map(TypeConversions::toSet)
-					.orElse(Collections.emptySet());
+	private static <T> Set<T> toSet(Collection<T> collection) {
+		return collection.stream().collect(Collectors.toSet());
+	}
+
+	/**
+	 * The datetime texts recognized, told apart by their length and the characters at fixed
+	 * positions: a {@code d} of the shape stands for a digit, any other character for itself.
+	 * Dates without a zone are read digit by digit into a lenient calendar, as
+	 * {@link SimpleDateFormat} reads them; a zone is left to {@link SimpleDateFormat}.
+	 */
+	private enum DatetimeLayout {
+		
+		DASHED_DATE("yyyy-MM-dd"),
+		
+		DASHED_ZONED_DATETIME("yyyy-MM-dd HH:mm:ss z"),
+		
+		SLASHED_DATE("yyyy/MM/dd"),
+		
+		SLASHED_ZONED_DATETIME("yyyy/MM/dd HH:mm:ss z"),
+		
+		DATE("yyyyMMdd"),
+		
+		ZONED_DATETIME("yyyyMMddHHmmssz");
+		
+		private static final DatetimeLayout[] LAYOUTS = values();
+		
+		private final String format;
+		
+		private final String shape;
+		
+		private final boolean zoned;
+		
+		private final int year;
+		
+		private final int month;
+		
+		private final int day;
+		
+		private DatetimeLayout(String format) {
+			this.format = format;
+			this.shape = format.replaceAll("[yMdHms]", "d");
+			this.zoned = format.indexOf('z') >= 0;
+			this.year = format.indexOf("yyyy");
+			this.month = format.indexOf("MM");
+			this.day = format.indexOf("dd");
 		}
 		
-//		@SuppressWarnings("unchecked")
-//		List<Map<String, Object>> valueAsListOfMap = (List<Map<String, Object>>)value;
+		private static DatetimeLayout of(String text) {
+			int length = text.length();
+			for (DatetimeLayout layout : LAYOUTS) {
+				if (layout.shape.length() == length && layout.matches(text)) {
+					return layout;
+				}
+			}
+			return null;
+		}
+		
+		private boolean matches(String text) {
+			for (int i = 0; i < shape.length(); i++) {
+				char c = text.charAt(i);
+				char s = shape.charAt(i);
+				if ('d' == s ? c < '0' || c > '9' : c != s) {
+					return false;
+				}
+			}
+			return true;
+		}
+		
+		private Date parse(String text) {
+			if (zoned) {
+				return parseDateAs(text, format);
+			}
+			
+			Calendar calendar = Calendar.getInstance();
+			calendar.clear();
+			calendar.set(number(text, year, 4), number(text, month, 2) - 1, 
+					number(text, day, 2));
+			return calendar.getTime();
+		}
+		
+		private static int number(String text, int start, int length) {
+			int result = 0;
+			for (int i = start; i < start + length; i++) {
+				result = result * 10 + (text.charAt(i) - '0');
+			}
+			return result;
+		}
 		
-		Set<Object> result = TypeConversions.convertCollectionAsType(
-				fieldGenericType, value, Collectors.toSet());
-		return result;
 	}
-
-	private static <T> Set<T> toSet(Collection<T> collection) {
-		return collection.stream().collect(Collectors.toSet());
+	
+	private static class FieldAliases {
+		
+		private final FieldConversion field;
+		
+		private final FieldConversion booleanField;
+		
+		private FieldAliases(Class<?> clazz, String fieldName) {
+			Field fld = ReflectionUtils.findField(clazz, fieldName);
+			if (null == fld && fieldName.length() > 0 && 
+					Character.isUpperCase(fieldName.charAt(0))) {
+				fld = ReflectionUtils.findField(clazz, fieldName.substring(0, 1).toLowerCase()
+						.concat(fieldName.substring(1)));
+			}
+			
+			Field isFld = null == fld && fieldName.length() > 0 ? 
+					ReflectionUtils.findField(clazz, "is"
+							.concat(fieldName.substring(0, 1).toUpperCase())
+							.concat(fieldName.substring(1))) : 
+					null;
+			
+			this.field = null != fld ? new FieldConversion(fld) : null;
+			this.booleanField = null != isFld ? new FieldConversion(isFld) : null;
+		}
+		
+		private boolean isFound() {
+			return null != field || null != booleanField;
+		}
+		
+		private FieldConversion forValue(Object value) {
+			return null != field || !(value instanceof Boolean) ? field : booleanField;
+		}
+		
 	}
-
-	private static Object getListFieldValue(Field field, List<Object> value) {
-		Type fieldGenericType = field.getGenericType();
-		if (TypeReflections.isGenericType(fieldGenericType, List.class, 
-				Arrays.asList(new TypeReference<Map<String, Object>>() {}))) {
+	
+	private static class FieldConversion {
+		
+		private final Field field;
+		
+		private final Class<?> fieldTypeClazz;
+		
+		private final Type genericType;
+		
+		private final boolean staticOnly;
+		
+		private final Type mapKeyType;
+		
+		private final boolean numberKeys;
+		
+		private final boolean collectionOfMaps;
+		
+		private FieldConversion(Field field) {
+			this.field = field;
+			this.fieldTypeClazz = field.getType();
+			this.genericType = field.getGenericType();
+			this.staticOnly = field.getModifiers() == Modifier.STATIC;
+			this.mapKeyType = TypeReflections.parseParameterizedType(genericType)
+					.map(Pair::getRight).map(l -> l.get(0)).orElse(null);
+			this.numberKeys = mapKeyType instanceof Class && 
+					Number.class.isAssignableFrom((Class<?>) mapKeyType);
+			this.collectionOfMaps = 
+					TypeReflections.isGenericType(genericType, List.class, MAP_OF_OBJECTS) || 
+					TypeReflections.isGenericType(genericType, Set.class, MAP_OF_OBJECTS);
+		}
+		
+		private Object convert(Object value) {
+			if (value instanceof Map) {
+				@SuppressWarnings("unchecked")
+				Map<String, Object> valueAsMap = (Map<String, Object>) value;
+				
+				value = Map.class.isAssignableFrom(fieldTypeClazz) ? 
+						convertKeys(valueAsMap) : 
+						TypeConversions.convertToClazz(fieldTypeClazz, valueAsMap);
+			}
+			else if (value instanceof List) {
+				@SuppressWarnings("unchecked")
+				List<Object> valueAsList = (List<Object>) value;
+				
+				value = convertList(valueAsList);
+			}
+			else if (value instanceof Number) {
+				value = Date.class.isAssignableFrom(fieldTypeClazz) ? 
+						TypeConversions.parseFromTimeMillis(((Number) value).longValue()) : 
+						TypeConversions.convertValue((Number) value, genericType);
+			}
+			else if (value instanceof String) {
+				String text = (String) value;
+				if (Date.class.isAssignableFrom(fieldTypeClazz)) {
+					value = parseDatetime(text);
+				}
+				else if (Class.class.isAssignableFrom(fieldTypeClazz)) {
+					value = convertClazzValue(text);
+				}
+			}
+			
+			if (fieldTypeClazz.isEnum() && value instanceof String) {
+				return getEnumValue(fieldTypeClazz, (String) value);
+			}
+			
+			if (fieldTypeClazz.isArray()) {
+				@SuppressWarnings("unchecked")
+				Class<Object[]> arrayClazz = (Class<Object[]>) fieldTypeClazz;
+				
+				return convertArray(parseArrayValue(value, arrayClazz), 
+						fieldTypeClazz.getComponentType());
+			}
+			
 			return value;
 		}
-
-//		@SuppressWarnings("unchecked")
-//		List<Map<String, Object>> valueAsListOfMap = (List<Map<String, Object>>)value;
 		
-		List<Object> result = TypeConversions.convertCollectionAsType(
-				fieldGenericType, value, Collectors.toList());
-		return result;
+		private Object convertKeys(Map<String, Object> value) {
+			if (!numberKeys) {
+				return value.entrySet().stream()
+						.collect(Collectors.toMap(Entry::getKey, Entry::getValue));
+			}
+			
+			return value.entrySet().stream()
+					.collect(Collectors.toMap(
+							e -> TypeConversions.parseNumber(e.getKey(), mapKeyType), 
+							Entry::getValue));
+		}
+		
+		private Object convertList(List<Object> value) {
+			if (List.class.isAssignableFrom(fieldTypeClazz)) {
+				if (collectionOfMaps) {
+					return value;
+				}
+				
+				List<Object> result = TypeConversions.convertCollectionAsType(
+						genericType, value, Collectors.toList());
+				return result;
+			}
+			
+			if (Set.class.isAssignableFrom(fieldTypeClazz)) {
+				if (collectionOfMaps) {
+					return toSet(value);
+				}
+				
+				Set<Object> result = TypeConversions.convertCollectionAsType(
+						genericType, value, Collectors.toSet());
+				return result;
+			}
+			
+			throw new UnsupportedOperationException("不支援的collection type!!");
+		}
+		
 	}
 	
 }
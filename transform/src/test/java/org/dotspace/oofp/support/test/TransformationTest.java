@@ -1,32 +1,68 @@
 package org.dotspace.oofp.support.test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.io.File;
 import java.io.IOException;
+import java.math.BigDecimal;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
+import org.apache.commons.lang3.tuple.Pair;
 import org.dotspace.oofp.support.builder.GeneralBuilders;
 import org.dotspace.oofp.support.builder.writer.GeneralBuildingWriters;
+import org.dotspace.oofp.support.dto.GeneralTransformationRequest;
+import org.dotspace.oofp.support.expression.ExpressionDependencies;
+import org.dotspace.oofp.support.expression.ExpressionWarmup;
+import org.dotspace.oofp.support.expression.ExpressionEvaluationsImpl;
+import org.dotspace.oofp.support.expression.ExpressionMetrics;
+import org.dotspace.oofp.support.expression.ExpressionStatistics;
+import org.dotspace.oofp.support.expression.ExpressionWarmupReport;
+import org.dotspace.oofp.support.expression.ParsedExpressionCache;
+import org.dotspace.oofp.support.test.dto.TestReportModel;
 import org.dotspace.oofp.support.test.dto.TransformationTestResult;
 import org.dotspace.oofp.support.test.dto.TransformationTestSourceInfo;
 import org.dotspace.oofp.support.transform.TransformAction;
+import org.dotspace.oofp.support.transform.GeneralTransformationImpl;
 import org.dotspace.oofp.support.transform.TransformActions;
+import org.dotspace.oofp.support.transform.TransformMapping;
 import org.dotspace.oofp.support.transform.TransformationContext;
+import org.dotspace.oofp.support.transform.TransformationPlan;
+import org.dotspace.oofp.support.transform.TransformationResults;
 import org.dotspace.oofp.support.transform.Transformations;
+import org.dotspace.oofp.util.TypeConversions;
+import org.dotspace.oofp.util.functional.ResolvedFunctorCache;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.expression.EvaluationException;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelCompilerMode;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
@@ -205,6 +241,347 @@ public class TransformationTest {
 
 	}
 
+	@Test
+	public void testCompiledTransformationContextReusedAcrossSources() {
+		TransformationContext<TransformationTestResult, ?> transformation = 
+				getTransformation(TransformationTestResult::new);
+		
+		TransformationTestSourceInfo first = getSourceInfo();
+		TransformationTestSourceInfo second = getSourceInfo();
+		second.setName("Jane");
+		second.getAmts().add(600L);
+		
+		assertEquals("John", transformation.transform(first).getName());
+		TransformationTestResult result = transformation.transform(second);
+		assertEquals("Jane", result.getName());
+		assertEquals(6, result.getCount());
+		assertEquals(2100L, result.getTotal());
+		
+		transformation.with(TransformActions.read("name + '!'")
+				.write("setName(#value)"));
+		assertEquals("John!", transformation.transform(first).getName());
+	}
+
+	@Test
+	public void testBulkTransformationsKeepOrderAndCollectFailures() {
+		TransformationContext<TransformationTestResult, ?> transformation = 
+				getTransformation(TransformationTestResult::new);
+		
+		List<TransformationTestSourceInfo> sources = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			TransformationTestSourceInfo sourceInfo = getSourceInfo();
+			sourceInfo.setName("name" + i);
+			sources.add(sourceInfo);
+		}
+		sources.set(7, null);
+		
+		List<TransformationResults<TransformationTestResult>> allResults = Arrays.asList(
+				transformation.transformAll(sources), 
+				transformation.transform(sources.stream()),
+				transformation.transform(sources.parallelStream()),
+				transformation.transformParallel(sources, 4));
+		
+		for (TransformationResults<TransformationTestResult> results : allResults) {
+			assertEquals(200, results.size());
+			assertTrue(results.hasFailures());
+			assertEquals(1, results.getFailures().size());
+			assertEquals(7, results.getFailures().get(0).getIndex());
+			assertNull(results.getResults().get(7));
+			assertEquals("name199", results.getResults().get(199).getName());
+			assertEquals(1500L, results.getResults().get(0).getTotal());
+		}
+	}
+
+	@Test
+	public void testWarmUpConfiguredExpressions() throws IOException {
+		List<TransformAction> transformActions = new ObjectMapper().readValue(
+				new ClassPathResource("/testTransformActions.json").getFile(), 
+				new TypeReference<List<TransformAction>>() {});
+		
+		ExpressionWarmup warmup = new ExpressionWarmup();
+		warmup.setExpressionEvaluations(transformations.getExpressionEvaluations());
+		
+		ExpressionWarmupReport report = warmup.warmUp(Arrays.asList(
+				Transformations.expressionsOf(transformActions), 
+				transformations.getFunctionalSupport(), 
+				() -> Arrays.asList("amts.?[#this >", "name")));
+		
+		assertEquals(26, report.getExpressionCount());
+		assertEquals(1, report.getFailures().size());
+		assertTrue(report.getFailures().containsKey("amts.?[#this >"));
+		assertTrue(report.getParseNanos().containsKey("setName(#value)"));
+		assertEquals(3, report.getSlowestExpressions(3).size());
+		assertSame(report, warmup.getLastReport());
+	}
+
+	@Test
+	public void testCompiledTransformationPlan() {
+		GeneralTransformationImpl generalTransformation = new GeneralTransformationImpl();
+		generalTransformation.setExpressionEvaluations(transformations.getExpressionEvaluations());
+		generalTransformation.setFunctionalSupport(transformations.getFunctionalSupport());
+		
+		List<TransformMapping> transformMappers = Arrays.asList(
+				newTransformMapping(6, "amts", "total"),
+				newTransformMapping(2, "amts", "total"),
+				newTransformMapping(1, "name", "name"),
+				newTransformMapping(3, "amts", "allGeThreeAllAmts"));
+		transformMappers.get(0).setIndicator("4");
+		transformMappers.get(1).setCollectorName("totalLong");
+		transformMappers.get(3).setPredicateName("allGt");
+		transformMappers.get(3).setPredicateOptions("300L");
+		transformMappers.get(3).setCollectorName("toList");
+		
+		TransformationPlan plan = generalTransformation.compile(transformMappers);
+		assertSame(plan, generalTransformation.compile(transformMappers));
+		assertEquals(4, plan.size());
+		
+		TransformationTestSourceInfo sourceInfo = getSourceInfo();
+		for (int i = 0; i < 2; i++) {
+			TransformationTestResult result = generalTransformation.transform(
+					new GeneralTransformationRequest<>(TransformationTestResult::new, 
+							sourceInfo, transformMappers));
+			
+			assertEquals("John", result.getName());
+			assertEquals(500L, result.getTotal());
+			assertNull(result.getAllGeThreeAllAmts());
+		}
+		assertSame(plan, generalTransformation.compile(transformMappers));
+		
+		List<Object> sources = Arrays.asList(sourceInfo, "not a source", getSourceInfo());
+		TransformationResults<TransformationTestResult> results = generalTransformation
+				.transformAll(TransformationTestResult::new, transformMappers, sources);
+		assertEquals(3, results.size());
+		assertEquals(500L, results.getResults().get(2).getTotal());
+		assertNull(results.getResults().get(1));
+		assertEquals(1, results.getFailures().get(0).getIndex());
+		assertSame(plan, generalTransformation.compile(transformMappers));
+		
+		ForkJoinPool pool = new ForkJoinPool(2);
+		try {
+			TransformationResults<TransformationTestResult> parallel = generalTransformation
+					.transformParallel(TransformationTestResult::new, transformMappers, 
+							sources, pool);
+			assertEquals("John", parallel.getResults().get(0).getName());
+			assertEquals(1, parallel.getFailures().size());
+		} finally {
+			pool.shutdown();
+		}
+		
+		generalTransformation.clearPlans();
+		assertNotSame(plan, generalTransformation.compile(transformMappers));
+	}
+
+	private TransformMapping newTransformMapping(int sequence, String source, 
+			String destination) {
+		TransformMapping transformMapping = new TransformMapping();
+		transformMapping.setMapperItemSequence(sequence);
+		transformMapping.setSourceExpression(source);
+		transformMapping.setDestinationExpression(destination);
+		return transformMapping;
+	}
+
+	@Test
+	public void testDependenciesOfReaders() throws IOException {
+		List<TransformAction> transformActions = new ObjectMapper().readValue(
+				new ClassPathResource("/testTransformActions.json").getFile(), 
+				new TypeReference<List<TransformAction>>() {});
+		
+		ExpressionDependencies dependencies = Transformations.dependenciesOf(transformActions);
+		
+		assertEquals(new HashSet<>(Arrays.asList("name", "age", "localDatetime", "amts")), 
+				dependencies.getPropertyPaths());
+		assertFalse(dependencies.isWholeRoot());
+		assertTrue(dependencies.reads("amts"));
+		assertFalse(dependencies.reads("total"));
+	}
+
+	@Test
+	public void testConvertMapsToClazzThroughCachedFields() throws Exception {
+		for (int i = 0; i < 3; i++) {
+			Map<String, Object> values = new HashMap<>();
+			values.put("Name", "report" + i);
+			values.put("date", "2024/01/0" + (i + 1));
+			values.put("amt", 100 + i);
+			values.put("unknown", "ignored");
+			
+			TestReportModel model = TypeConversions.convertToClazz(TestReportModel.class, values);
+			
+			assertEquals("report" + i, model.getName());
+			assertEquals(new SimpleDateFormat("yyyy/MM/dd").parse("2024/01/0" + (i + 1)), 
+					model.getDate());
+			assertEquals(new BigDecimal(100 + i), model.getAmt());
+			assertNull(model.getCcy());
+		}
+	}
+
+	@Test
+	public void testDetermineAndParseDatetimeFormats() throws Exception {
+		String[][] datetimes = {
+				{"2024-02-29", "yyyy-MM-dd"}, {"2024/02/29", "yyyy/MM/dd"}, 
+				{"20240229", "yyyyMMdd"}, {"2024-13-45", "yyyy-MM-dd"}, 
+				{"2024-02-29 10:11:12 z", "yyyy-MM-dd HH:mm:ss z"}, 
+				{"2024/02/29 10:11:12 z", "yyyy/MM/dd HH:mm:ss z"}, 
+				{"20240229101112z", "yyyyMMddHHmmssz"}};
+		for (String[] datetime : datetimes) {
+			assertEquals(datetime[1], TypeConversions.determineDatetimeFormat(datetime[0]).get());
+		}
+		
+		for (String text : Arrays.asList("2024-2-29", "2024-02/29", "2024-02-29 10:11:12", 
+				"2024022910", "2024-0a-29", " ", "")) {
+			assertFalse(text, TypeConversions.determineDatetimeFormat(text).isPresent());
+		}
+		
+		for (String[] datetime : Arrays.copyOf(datetimes, 4)) {
+			assertEquals(new SimpleDateFormat(datetime[1]).parse(datetime[0]), 
+					TypeConversions.formatDate(Pair.of(datetime[0], 
+							TypeConversions.determineDatetimeFormat(datetime[0]))));
+		}
+	}
+
+	@Test
+	public void testParsedExpressionCache() {
+		ParsedExpressionCache cache = new ParsedExpressionCache(2);
+		
+		Expression a = cache.parse("'a'");
+		assertSame(a, cache.parse("'a'"));
+		cache.parse("'b'");
+		cache.parse("'a'");
+		cache.parse("'c'");
+		
+		assertEquals(2, cache.size());
+		assertEquals(1L, cache.getEvictionCount());
+		assertSame(a, cache.parse("'a'"));
+		assertEquals(3L, cache.getMissCount());
+		assertNull(cache.parse(null));
+		
+		cache.setCapacity(0);
+		assertEquals(0, cache.size());
+		assertNotSame(cache.parse("'a'"), cache.parse("'a'"));
+		
+		ExpressionEvaluationsImpl expressionEvaluations = new ExpressionEvaluationsImpl();
+		expressionEvaluations.parse("name + 'x'");
+		assertEquals("Johnx", expressionEvaluations.parse("name + 'x'").getValue(getSourceInfo()));
+		assertEquals(1L, expressionEvaluations.getParsedExpressions().getHitCount());
+		
+		ParsedExpressionCache shared = new ParsedExpressionCache(8);
+		shared.parse("'a'");
+		expressionEvaluations = new ExpressionEvaluationsImpl();
+		expressionEvaluations.setParsedExpressions(shared);
+		expressionEvaluations.setCompilerMode(SpelCompilerMode.MIXED);
+		assertSame(shared, expressionEvaluations.getParsedExpressions());
+		assertEquals(0, shared.size());
+		assertEquals(1L, shared.getMissCount());
+		
+		assertEquals(5, expressionEvaluations.parse("name.length() + 1")
+				.<Integer>getValue(getSourceInfo()).intValue());
+		assertEquals(5, expressionEvaluations.parse("name.length() + 1")
+				.<Integer>getValue(getSourceInfo()).intValue());
+		assertTrue(expressionEvaluations.getCompilations().isCompiled("name.length() + 1"));
+	}
+
+	@Test
+	public void testBatchEvaluations() {
+		ExpressionEvaluationsImpl expressionEvaluations = new ExpressionEvaluationsImpl();
+		List<Integer> numbers = new ArrayList<>();
+		for (int i = 0; i < 3000; i++) {
+			numbers.add(i);
+		}
+		List<TransformationTestSourceInfo> sources = Arrays.asList(getSourceInfo(), getSourceInfo());
+		
+		Integer[] results = new Integer[4];
+		assertSame(results, expressionEvaluations.parse("#this * 2").getValues(
+				Integer.class, null, new Object[] { 1, 2 }, results));
+		assertEquals(Arrays.asList(2, 4, null, null), Arrays.asList(results));
+		String[] names = expressionEvaluations.parse("name").getValues(
+				String.class, null, sources, new String[0]);
+		assertEquals(Arrays.asList("John", "John"), Arrays.asList(names));
+		assertEquals("John", expressionEvaluations.parse("name")
+				.getValue((Class<String>) null, getSourceInfo()));
+		assertEquals(2, expressionEvaluations.parse("1 + 2").getValues(
+				Integer.class, null, sources, new Integer[0]).length);
+		
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			Integer[] doubled = expressionEvaluations.parse("#this * #factor").getValues(
+					Integer.class, Collections.singletonMap("factor", 2), numbers, 
+					new Integer[0], pool);
+			assertEquals(numbers.size(), doubled.length);
+			for (int i = 0; i < doubled.length; i++) {
+				assertEquals(2 * i, doubled[i].intValue());
+			}
+		} finally {
+			pool.shutdown();
+		}
+		
+		ExpressionMetrics metrics = new ExpressionMetrics();
+		expressionEvaluations.setMetrics(metrics);
+		try {
+			expressionEvaluations.parse("#this.intValue()").getValues(
+					Integer.class, null, Arrays.asList(1, 2, "x", 4), new Integer[0]);
+			fail("a root without intValue() must fail the batch");
+		} catch (EvaluationException e) {
+			ExpressionStatistics statistics = metrics.getStatistics("#this.intValue()");
+			assertEquals(2L, statistics.getEvaluationCount());
+			assertEquals(1L, statistics.getExceptionCount());
+		}
+		expressionEvaluations.setMetrics(null);
+		
+		List<Integer> incremented = expressionEvaluations.parse("#this + 1").getValues(
+				Integer.class, null, numbers.parallelStream(), Collectors.toList());
+		assertEquals(numbers.size(), incremented.size());
+		for (int i = 0; i < incremented.size(); i++) {
+			assertEquals(i + 1, incremented.get(i).intValue());
+		}
+	}
+
+	@Test
+	public void testSharedContextTemplateAcrossThreads() throws Exception {
+		ExpressionEvaluationsImpl expressionEvaluations = new ExpressionEvaluationsImpl();
+		TransformationTestSourceInfo sourceInfo = getSourceInfo();
+		int threads = 8;
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<String>> results = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				results.add(executor.submit(() -> {
+					start.await();
+					return expressionEvaluations.parse("name.toUpperCase() + T(java.lang.Math)"
+							+ ".abs(-age) + new java.lang.StringBuilder(name).length()")
+							.getValue(String.class, sourceInfo);
+				}));
+			}
+			start.countDown();
+			
+			for (Future<String> result : results) {
+				assertEquals("JOHN254", result.get(10, TimeUnit.SECONDS));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testResolvedFunctorCacheKeysOptionsByValue() {
+		ResolvedFunctorCache cache = new ResolvedFunctorCache();
+		Map<String, Object> options = new HashMap<>();
+		options.put("pattern", "yyyyMMdd");
+		options.put("zones", new ArrayList<>(Arrays.asList("UTC")));
+		
+		Object resolved = cache.resolve("function", "parse", options, Object::new);
+		assertSame(resolved, cache.resolve("function", "parse", new HashMap<>(options), Object::new));
+		
+		options.put("pattern", "yyyyMMddHHmmss");
+		assertNotSame(resolved, cache.resolve("function", "parse", options, Object::new));
+		
+		Object rezoned = cache.resolve("function", "parse", options, Object::new);
+		@SuppressWarnings("unchecked")
+		List<String> zones = (List<String>) options.get("zones");
+		zones.add("Asia/Taipei");
+		assertNotSame(rezoned, cache.resolve("function", "parse", options, Object::new));
+		assertEquals(3L, cache.getMissCount());
+	}
+
 	private <T> TransformationContext<T, ?> getTransformation(
 			Supplier<T> constructor) {
 